@@ -0,0 +1,53 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@code StreamTest.AggregateStreamTest}.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AggregateStreamBenchmark {
+
+    @Benchmark
+    public int min(NumberState state) {
+        return state.isBoxed()
+                ? state.boxed().min(Comparator.naturalOrder()).orElse(0)
+                : state.ints().min().orElse(0);
+    }
+
+    @Benchmark
+    public int max(NumberState state) {
+        return state.isBoxed()
+                ? state.boxed().max(Comparator.naturalOrder()).orElse(0)
+                : state.ints().max().orElse(0);
+    }
+
+    @Benchmark
+    public int sum(NumberState state) {
+        return state.isBoxed()
+                ? state.boxed().reduce(0, Integer::sum)
+                : state.ints().sum();
+    }
+
+    @Benchmark
+    public double average(NumberState state) {
+        return state.isBoxed()
+                ? state.boxed().mapToInt(Integer::intValue).average().orElse(0.0)
+                : state.ints().average().orElse(0.0);
+    }
+
+    @Benchmark
+    public int factorial(NumberState state) {
+        // overflow is expected on a big input, the benchmark only measure the reduce operation
+        return state.isBoxed()
+                ? state.boxed().reduce(1, (value, item) -> value * item)
+                : state.ints().reduce(1, (value, item) -> value * item);
+    }
+}
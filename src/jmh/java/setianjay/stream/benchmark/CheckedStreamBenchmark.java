@@ -0,0 +1,37 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@code StreamTest.CheckedStreamTest}, every predicate must scan the whole input before it is decided.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CheckedStreamBenchmark {
+
+    @Benchmark
+    public boolean anyMatch(NumberState state) {
+        return state.isBoxed()
+                ? state.boxed().anyMatch(number -> number < 0)
+                : state.ints().anyMatch(number -> number < 0);
+    }
+
+    @Benchmark
+    public boolean allMatch(NumberState state) {
+        return state.isBoxed()
+                ? state.boxed().allMatch(number -> number > 0)
+                : state.ints().allMatch(number -> number > 0);
+    }
+
+    @Benchmark
+    public boolean noneMatch(NumberState state) {
+        return state.isBoxed()
+                ? state.boxed().noneMatch(number -> number > state.size)
+                : state.ints().noneMatch(number -> number > state.size);
+    }
+}
@@ -0,0 +1,67 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import setianjay.stream.columnar.Condition;
+import setianjay.stream.columnar.IntColumn;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compare {@code IntStream.filter(number -> number % 2 == 0).sum()} and {@code average()} with the same job on an
+ * {@link IntColumn}, with the vector kernel and with the scalar kernel.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules=jdk.incubator.vector"})
+@State(value = Scope.Benchmark)
+public class ColumnarBenchmark {
+
+    @Param(value = {"1000", "1000000"})
+    public int size;
+
+    private int[] numbers;
+
+    @Setup(value = Level.Trial)
+    public void setup() {
+        numbers = ThreadLocalRandom.current().ints(size, -1_000_000, 1_000_000).toArray();
+    }
+
+    // a new column for every call, a column keeps the result of its first aggregate
+    private IntColumn even() {
+        return IntColumn.of(numbers).filter(Condition.MULTIPLE_OF, 2);
+    }
+
+    @Benchmark
+    public long streamSum() {
+        return IntStream.of(numbers).filter(number -> number % 2 == 0).asLongStream().sum();
+    }
+
+    @Benchmark
+    public long columnSum() {
+        return even().sum();
+    }
+
+    @Benchmark
+    public long scalarColumnSum() {
+        return even().scalar().sum();
+    }
+
+    @Benchmark
+    public double streamAverage() {
+        return IntStream.of(numbers).filter(number -> number % 2 == 0).average().orElse(0);
+    }
+
+    @Benchmark
+    public double columnAverage() {
+        return even().average().orElse(0);
+    }
+
+    @Benchmark
+    public double scalarColumnAverage() {
+        return even().scalar().average().orElse(0);
+    }
+}
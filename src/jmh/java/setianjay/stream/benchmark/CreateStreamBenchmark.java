@@ -0,0 +1,50 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark for {@code StreamTest.CreateStreamTest}.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CreateStreamBenchmark {
+
+    @Benchmark
+    public Object fromArray(NumberState state) {
+        return state.isBoxed()
+                ? state.boxed().toArray(Integer[]::new)
+                : state.ints().toArray();
+    }
+
+    @Benchmark
+    public Object fromList(NumberState state) {
+        return state.isBoxed()
+                ? state.list().toList()
+                : state.list().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Benchmark
+    public long withBuilder(NumberState state) {
+        if (state.isBoxed()) {
+            Stream.Builder<Integer> builder = Stream.builder();
+            for (Integer number : state.boxedNumbers) {
+                builder.add(number);
+            }
+            // sum() instead of count(), the count of a built stream is its size without reading the elements
+            return state.execute(builder.build()).mapToLong(Integer::longValue).sum();
+        }
+
+        IntStream.Builder builder = IntStream.builder();
+        for (int number : state.numbers) {
+            builder.add(number);
+        }
+        return state.execute(builder.build()).asLongStream().sum();
+    }
+}
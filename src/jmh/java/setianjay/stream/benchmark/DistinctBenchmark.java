@@ -0,0 +1,43 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import setianjay.stream.distinct.Distinct;
+import setianjay.stream.spill.Serializer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the {@link Distinct} modes with {@code Stream.distinct()} of {@code StreamTest.FilteringStreamTest}, the
+ * exact mode only keeps a tenth of the distinct names in memory.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DistinctBenchmark {
+
+    @Benchmark
+    public long streamDistinct(NameState state) {
+        return state.duplicatedNames().distinct().count();
+    }
+
+    @Benchmark
+    public long exactWithSpill(NameState state) {
+        int maxInMemory = Math.max(1, state.size / 40);
+        try (var names = Distinct.exact(maxInMemory, Serializer.strings()).apply(state.duplicatedNames())) {
+            return names.count();
+        }
+    }
+
+    @Benchmark
+    public long approximate(NameState state) {
+        return state.duplicatedNames().filter(Distinct.approximate(Math.max(1, state.size / 4), 0.01)).count();
+    }
+
+    @Benchmark
+    public long window(NameState state) {
+        return state.duplicatedNames().filter(Distinct.window(10_000, Duration.ofSeconds(1))).count();
+    }
+}
@@ -0,0 +1,30 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmark for {@code StreamTest.ExecutionStreamTest}, the sequential or parallel execution is chosen by
+ * {@link NumberState#execution}. The item is summed into a {@link LongAdder} instead of printed.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ExecutionStreamBenchmark {
+
+    @Benchmark
+    public long forEach(NumberState state) {
+        LongAdder sink = new LongAdder();
+        if (state.isBoxed()) {
+            state.boxed().forEach(sink::add);
+        } else {
+            state.ints().forEach(sink::add);
+        }
+
+        return sink.sum();
+    }
+}
@@ -0,0 +1,82 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import setianjay.stream.transform.Expanders;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compare {@code flatMap(element -> Stream.of(...))} with {@code mapMulti} and {@link Expanders} for every element
+ * expanded into {@code fanOut} elements, boxed and primitive.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(value = Scope.Benchmark)
+public class ExpandersBenchmark {
+
+    @Param(value = {"1000", "1000000"})
+    public int size;
+
+    @Param(value = {"1", "2", "4", "16"})
+    public int fanOut;
+
+    private Integer[] numbers;
+
+    private Function<Integer, Integer>[] mappers;
+
+    private IntUnaryOperator[] intMappers;
+
+    @Setup(value = Level.Trial)
+    @SuppressWarnings(value = "unchecked")
+    public void setup() {
+        numbers = IntStream.range(0, size).boxed().toArray(Integer[]::new);
+        mappers = new Function[fanOut];
+        intMappers = new IntUnaryOperator[fanOut];
+        for (int i = 0; i < fanOut; i++) {
+            int offset = i;
+            mappers[i] = number -> number + offset;
+            intMappers[i] = number -> number + offset;
+        }
+    }
+
+    @Benchmark
+    public long flatMapStreamOf() {
+        return Arrays.stream(numbers).flatMap(number -> {
+            Integer[] expanded = new Integer[fanOut];
+            for (int i = 0; i < fanOut; i++) {
+                expanded[i] = mappers[i].apply(number);
+            }
+            return Stream.of(expanded);
+        }).mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long mapMulti() {
+        return Arrays.stream(numbers).<Integer>mapMulti(Expanders.of(mappers)).mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long flatMapIntStreamOf() {
+        return Arrays.stream(numbers).mapToInt(Integer::intValue).flatMap(number -> {
+            int[] expanded = new int[fanOut];
+            for (int i = 0; i < fanOut; i++) {
+                expanded[i] = intMappers[i].applyAsInt(number);
+            }
+            return IntStream.of(expanded);
+        }).asLongStream().sum();
+    }
+
+    @Benchmark
+    public long mapMultiInt() {
+        return Arrays.stream(numbers).mapToInt(Integer::intValue).mapMulti(Expanders.ints(intMappers))
+                .asLongStream().sum();
+    }
+}
@@ -0,0 +1,45 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark for {@code StreamTest.FilteringStreamTest}.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FilteringStreamBenchmark {
+
+    @Benchmark
+    public long distinct(NameState state) {
+        return state.duplicatedNames()
+                .distinct()
+                .count();
+    }
+
+    @Benchmark
+    public long filter(NumberState state) {
+        return state.isBoxed()
+                ? state.boxed().filter(number -> number % 2 == 0).count()
+                : state.ints().filter(number -> number % 2 == 0).count();
+    }
+
+    @Benchmark
+    public Map<String, List<Integer>> groupBy(NumberState state) {
+        return (state.isBoxed() ? state.boxed() : state.ints().boxed())
+                .collect(Collectors.groupingBy(number -> (number % 2 == 0) ? "Even" : "Odd"));
+    }
+
+    @Benchmark
+    public Map<Boolean, List<Integer>> partitionBy(NumberState state) {
+        return (state.isBoxed() ? state.boxed() : state.ints().boxed())
+                .collect(Collectors.partitioningBy(number -> number % 2 == 0));
+    }
+}
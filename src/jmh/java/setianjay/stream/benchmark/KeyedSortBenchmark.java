@@ -0,0 +1,35 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import setianjay.stream.sort.KeyedSort;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare {@link KeyedSort} with the {@code stringSizeComparator} sort of {@code StreamTest.OrderedStreamTest}.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class KeyedSortBenchmark {
+
+    private static final Comparator<String> STRING_SIZE_COMPARATOR = Comparator.comparingInt(String::length)
+            .thenComparing(Comparator.naturalOrder());
+
+    private static final KeyedSort<String> STRING_SIZE_SORT = KeyedSort.<String>comparingInt(String::length)
+            .thenComparing(Comparator.naturalOrder());
+
+    @Benchmark
+    public List<String> comparatorSort(NameState state) {
+        return state.names().sorted(STRING_SIZE_COMPARATOR).toList();
+    }
+
+    @Benchmark
+    public List<String> keyedSort(NameState state) {
+        return STRING_SIZE_SORT.sorted(state.names()).toList();
+    }
+}
@@ -0,0 +1,73 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import setianjay.stream.source.ByteSlice;
+import setianjay.stream.source.Sources;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compare {@code Files.lines} with {@link Sources#lines(Path)} on a CSV file, sum the amount of every name.
+ */
+@BenchmarkMode(value = Mode.AverageTime)
+@OutputTimeUnit(value = TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(value = Scope.Benchmark)
+public class LinesBenchmark {
+
+    private static final String[] NAMES = {"Budi", "Edi", "Hari", "Gurindo", "Firman", "Setyarto", "Zidan"};
+
+    @Param(value = {"100000", "10000000"})
+    public int lines;
+
+    @Param
+    public NumberState.Execution execution;
+
+    private Path file;
+
+    @Setup(value = Level.Trial)
+    public void setup() throws IOException {
+        file = Files.createTempFile("lines", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int line = 0; line < lines; line++) {
+                writer.write(line + "," + NAMES[line % NAMES.length] + "," + (line % 1000));
+                writer.newLine();
+            }
+        }
+    }
+
+    @TearDown(value = Level.Trial)
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    private <T> Stream<T> execute(Stream<T> stream) {
+        return execution == NumberState.Execution.PARALLEL ? stream.parallel() : stream;
+    }
+
+    @Benchmark
+    public Map<String, Long> filesLines() throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            return execute(lines).map(line -> line.split(","))
+                    .collect(Collectors.groupingBy(fields -> fields[1],
+                            Collectors.summingLong(fields -> Long.parseLong(fields[2]))));
+        }
+    }
+
+    @Benchmark
+    public Map<ByteSlice, Long> mappedLines() {
+        try (Stream<ByteSlice> lines = Sources.lines(file)) {
+            return execute(lines).collect(Collectors.groupingBy(line -> line.field(1, (byte) ','),
+                    Collectors.summingLong(line -> line.field(2, (byte) ',').parseLong())));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import setianjay.stream.collector.DuplicateKeyPolicy;
+import setianjay.stream.collector.IntKeyMap;
+import setianjay.stream.collector.MapCollectors;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compare the presized {@link MapCollectors#toMap} with {@code Collectors.toMap} of
+ * {@code StreamTest.TransformationStreamTest}, the key is the number itself so there is no duplicate key.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MapCollectorsBenchmark {
+
+    @Benchmark
+    public Map<Integer, Integer> collectorsToMap(NumberState state) {
+        return state.boxed().collect(Collectors.toMap(Function.identity(), Function.identity()));
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> presizedToMap(NumberState state) {
+        return state.boxed().collect(MapCollectors.toMap(Function.identity(), Function.identity(), state.size,
+                DuplicateKeyPolicy.FAIL));
+    }
+
+    @Benchmark
+    public IntKeyMap<Integer> presizedToIntKeyMap(NumberState state) {
+        return state.boxed().collect(MapCollectors.toIntKeyMap(Integer::intValue, Function.identity(), state.size,
+                DuplicateKeyPolicy.FAIL));
+    }
+}
@@ -0,0 +1,59 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import setianjay.stream.execution.BlockingStreams;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of 1000 calls to a simulated local service with 1 ms latency, against the concurrency limit of
+ * {@link BlockingStreams#mapConcurrent}. The {@code parallelMap} is the {@code parallel()} demo of
+ * {@code StreamTest.ExecutionStreamTest}, bounded by the parallelism of the common pool.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1)
+@State(value = Scope.Benchmark)
+public class MapConcurrentBenchmark {
+
+    private static final int CALLS = 1_000;
+
+    @Param(value = {"1", "8", "64", "256", "1000"})
+    public int concurrency;
+
+    private static int callService(int request) {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        return request;
+    }
+
+    private static Stream<Integer> requests() {
+        return IntStream.range(0, CALLS).boxed();
+    }
+
+    @Benchmark
+    public long parallelMap() {
+        // sum() instead of count(), the count of a SIZED pipeline skips the map
+        return requests().parallel().map(MapConcurrentBenchmark::callService).mapToInt(Integer::intValue).sum();
+    }
+
+    @Benchmark
+    public long mapConcurrent() {
+        try (Stream<Integer> responses = BlockingStreams.mapConcurrent(requests(), concurrency,
+                MapConcurrentBenchmark::callService)) {
+            return responses.mapToInt(Integer::intValue).sum();
+        }
+    }
+
+    @Benchmark
+    public long mapConcurrentUnordered() {
+        try (Stream<Integer> responses = BlockingStreams.mapConcurrentUnordered(requests(), concurrency,
+                MapConcurrentBenchmark::callService)) {
+            return responses.mapToInt(Integer::intValue).sum();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import setianjay.stream.match.MatchResult;
+import setianjay.stream.match.MultiMatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Compare one pipeline per check with {@link MultiMatch} that evaluates all the checks in one pass. Most of the checks
+ * are only decided at the end of the stream, the worst case of a validation job.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(value = Scope.Benchmark)
+public class MultiMatchBenchmark {
+
+    @Param(value = {"3", "24"})
+    public int checks;
+
+    private final List<Predicate<Integer>> anyMatches = new ArrayList<>();
+    private final List<Predicate<Integer>> allMatches = new ArrayList<>();
+    private final List<Predicate<Integer>> noneMatches = new ArrayList<>();
+
+    private MultiMatch<Integer> multiMatch;
+
+    @Setup(value = Level.Trial)
+    public void setup() {
+        multiMatch = MultiMatch.create();
+        for (int check = 0; check < checks; check += 3) {
+            int value = check;
+            anyMatches.add(number -> number == -value);
+            allMatches.add(number -> number > -value - 1);
+            noneMatches.add(number -> number < -value);
+            multiMatch = multiMatch.anyMatch("any " + check, anyMatches.getLast())
+                    .allMatch("all " + check, allMatches.getLast())
+                    .noneMatch("none " + check, noneMatches.getLast());
+        }
+    }
+
+    @Benchmark
+    public void separatePipelines(NumberState state, Blackhole blackhole) {
+        for (Predicate<Integer> predicate : anyMatches) {
+            blackhole.consume(state.list().anyMatch(predicate));
+        }
+        for (Predicate<Integer> predicate : allMatches) {
+            blackhole.consume(state.list().allMatch(predicate));
+        }
+        for (Predicate<Integer> predicate : noneMatches) {
+            blackhole.consume(state.list().noneMatch(predicate));
+        }
+    }
+
+    @Benchmark
+    public MatchResult multiMatch(NumberState state) {
+        return multiMatch.evaluate(state.list());
+    }
+}
@@ -0,0 +1,54 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Shared text input for the benchmarks, the content is built from the names used in {@code StreamTest}.
+ */
+@State(value = Scope.Benchmark)
+public class NameState {
+
+    private static final String[] NAMES = {
+            "Hari", "Budi", "Edi", "Gurindo", "Firman", "Setyarto", "Sudaryati", "El", "Al", "Zidan"
+    };
+
+    @Param(value = {"10", "1000", "100000", "10000000"})
+    public int size;
+
+    @Param
+    public NumberState.Execution execution;
+
+    // every name is unique, so it is safe to be used as a key of Collectors.toMap
+    public String[] names;
+
+    // only a quarter of the names are unique, the rest is duplicate
+    public String[] duplicatedNames;
+
+    @Setup(value = Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        int distinct = Math.max(1, size / 4);
+
+        names = new String[size];
+        duplicatedNames = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = NAMES[random.nextInt(NAMES.length)] + i;
+            duplicatedNames[i] = NAMES[i % NAMES.length] + random.nextInt(distinct);
+        }
+    }
+
+    public Stream<String> names() {
+        return execute(Stream.of(names));
+    }
+
+    public Stream<String> duplicatedNames() {
+        return execute(Stream.of(duplicatedNames));
+    }
+
+    private Stream<String> execute(Stream<String> stream) {
+        return execution == NumberState.Execution.PARALLEL ? stream.parallel() : stream.sequential();
+    }
+}
@@ -0,0 +1,73 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.BaseStream;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Shared numeric input for the benchmarks, the content is {1, 2, 3, ..., size} like the {@code Stream.of(1..10)}
+ * used in {@code StreamTest}, only bigger.
+ */
+@State(value = Scope.Benchmark)
+public class NumberState {
+
+    /**
+     * Wrapper type of the stream content, {@code Stream<Integer>} or {@code IntStream}.
+     */
+    public enum Shape {
+        BOXED, PRIMITIVE
+    }
+
+    /**
+     * How the stream is executed, with the calling thread or with the common fork join pool.
+     */
+    public enum Execution {
+        SEQUENTIAL, PARALLEL
+    }
+
+    @Param(value = {"10", "1000", "100000", "10000000"})
+    public int size;
+
+    @Param
+    public Shape shape;
+
+    @Param
+    public Execution execution;
+
+    public int[] numbers;
+
+    public Integer[] boxedNumbers;
+
+    public List<Integer> listNumbers;
+
+    @Setup(value = Level.Trial)
+    public void setup() {
+        numbers = IntStream.rangeClosed(1, size).toArray();
+        boxedNumbers = Arrays.stream(numbers).boxed().toArray(Integer[]::new);
+        listNumbers = List.of(boxedNumbers);
+    }
+
+    public boolean isBoxed() {
+        return shape == Shape.BOXED;
+    }
+
+    public IntStream ints() {
+        return execute(Arrays.stream(numbers));
+    }
+
+    public Stream<Integer> boxed() {
+        return execute(Stream.of(boxedNumbers));
+    }
+
+    public Stream<Integer> list() {
+        return execute(listNumbers.stream());
+    }
+
+    public <S extends BaseStream<?, S>> S execute(S stream) {
+        return execution == Execution.PARALLEL ? stream.parallel() : stream.sequential();
+    }
+}
@@ -0,0 +1,95 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import setianjay.stream.slice.OrderedSlices;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compare {@link OrderedSlices} with the sequential and parallel stream operations, the result is the first half of
+ * the numbers (or the second half for skip and dropWhile).
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(value = Scope.Benchmark)
+public class OrderedSlicesBenchmark {
+
+    @Param(value = {"1000", "100000", "10000000"})
+    public int size;
+
+    private List<Integer> numbers;
+
+    private int half;
+
+    @Setup(value = Level.Trial)
+    public void setup() {
+        numbers = IntStream.range(0, size).boxed().collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        half = size / 2;
+    }
+
+    @Benchmark
+    public List<Integer> limitSequential() {
+        return numbers.stream().map(number -> number * 2).limit(half).toList();
+    }
+
+    @Benchmark
+    public List<Integer> limitParallel() {
+        return numbers.parallelStream().map(number -> number * 2).limit(half).toList();
+    }
+
+    @Benchmark
+    public List<Integer> limit() {
+        return OrderedSlices.limit(numbers.parallelStream().map(number -> number * 2), half).toList();
+    }
+
+    @Benchmark
+    public long skipSequential() {
+        return numbers.stream().skip(half).mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long skipParallel() {
+        return numbers.parallelStream().skip(half).mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long skip() {
+        return OrderedSlices.skip(numbers.parallelStream(), half).mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public List<Integer> takeWhileSequential() {
+        return numbers.stream().takeWhile(number -> number < half).toList();
+    }
+
+    @Benchmark
+    public List<Integer> takeWhileParallel() {
+        return numbers.parallelStream().takeWhile(number -> number < half).toList();
+    }
+
+    @Benchmark
+    public List<Integer> takeWhile() {
+        return OrderedSlices.takeWhile(numbers, number -> number < half).toList();
+    }
+
+    @Benchmark
+    public long dropWhileSequential() {
+        return numbers.stream().dropWhile(number -> number < half).mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long dropWhileParallel() {
+        return numbers.parallelStream().dropWhile(number -> number < half).mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long dropWhile() {
+        return OrderedSlices.dropWhile(numbers, number -> number < half).mapToLong(Integer::longValue).sum();
+    }
+}
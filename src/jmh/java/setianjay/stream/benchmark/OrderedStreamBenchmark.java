@@ -0,0 +1,42 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@code StreamTest.OrderedStreamTest}, the comparator is the same with the test but without printing.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OrderedStreamBenchmark {
+
+    // string size comparator, if the length are equal sort them alphabetically
+    private static final Comparator<String> STRING_SIZE_COMPARATOR = (obj1, obj2) -> {
+        int lengthComparison = Integer.compare(obj1.length(), obj2.length());
+        if (lengthComparison == 0) {
+            return obj1.compareTo(obj2);
+        }
+
+        return lengthComparison;
+    };
+
+    @Benchmark
+    public List<String> sortedWithComparator(NameState state) {
+        return state.names()
+                .sorted(STRING_SIZE_COMPARATOR)
+                .toList();
+    }
+
+    @Benchmark
+    public List<String> sortedWithoutComparator(NameState state) {
+        return state.names()
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,59 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import setianjay.stream.pipeline.Pipeline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Latency of a filter, map and reduce chain over a small batch: a new stream for every batch, a {@link Pipeline}
+ * defined once, and a hand written loop. Sample time mode, so the result shows p50 and p99.
+ */
+@BenchmarkMode(value = Mode.SampleTime)
+@OutputTimeUnit(value = TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(value = Scope.Benchmark)
+public class PipelineBenchmark {
+
+    private static final Pipeline<Integer, Integer> EVEN_SQUARE = Pipeline.<Integer>start()
+            .filter(number -> number % 2 == 0)
+            .map(number -> number * number);
+
+    @Param(value = {"10", "100"})
+    public int size;
+
+    private Integer[] batch;
+
+    @Setup(value = Level.Trial)
+    public void setup() {
+        batch = IntStream.rangeClosed(1, size).boxed().toArray(Integer[]::new);
+    }
+
+    @Benchmark
+    public int stream() {
+        return Stream.of(batch)
+                .filter(number -> number % 2 == 0)
+                .map(number -> number * number)
+                .reduce(0, Integer::sum);
+    }
+
+    @Benchmark
+    public int pipeline() {
+        return EVEN_SQUARE.reduce(batch, 0, Integer::sum);
+    }
+
+    @Benchmark
+    public int loop() {
+        int sum = 0;
+        for (Integer number : batch) {
+            if (number % 2 == 0) {
+                sum += number * number;
+            }
+        }
+        return sum;
+    }
+}
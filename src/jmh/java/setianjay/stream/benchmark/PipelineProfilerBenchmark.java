@@ -0,0 +1,57 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import setianjay.stream.instrument.PipelineProfiler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of {@link PipelineProfiler} on a cheap filter and map pipeline, without a profiler, with a disabled
+ * profiler, and enabled with the default and with every element timed.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(value = Scope.Benchmark)
+public class PipelineProfilerBenchmark {
+
+    private final PipelineProfiler disabled = PipelineProfiler.disabled();
+
+    private final PipelineProfiler sampled = PipelineProfiler.create("sampled");
+
+    private final PipelineProfiler timed = PipelineProfiler.create("timed", 1);
+
+    private long run(NumberState state, PipelineProfiler profiler) {
+        return state.list()
+                .filter(profiler.filter("even", number -> number % 2 == 0))
+                .map(profiler.map("square", number -> (long) number * number))
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    @Benchmark
+    public long none(NumberState state) {
+        return state.list()
+                .filter(number -> number % 2 == 0)
+                .map(number -> (long) number * number)
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    @Benchmark
+    public long disabled(NumberState state) {
+        return run(state, disabled);
+    }
+
+    @Benchmark
+    public long sampled(NumberState state) {
+        return run(state, sampled);
+    }
+
+    @Benchmark
+    public long timed(NumberState state) {
+        return run(state, timed);
+    }
+}
@@ -0,0 +1,60 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import setianjay.stream.aggregate.PrimitiveAggregate;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compare {@link PrimitiveAggregate} with the boxed {@code reduce} of {@code StreamTest.AggregateStreamTest}. The boxed
+ * version needs one pipeline for every aggregate, the primitive version computes all of them in one pass.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(value = Scope.Benchmark)
+public class PrimitiveAggregateBenchmark {
+
+    @Param(value = {"10", "1000", "100000", "10000000"})
+    public int size;
+
+    private int[] numbers;
+
+    private Integer[] boxedNumbers;
+
+    @Setup(value = Level.Trial)
+    public void setup() {
+        numbers = IntStream.rangeClosed(1, size).toArray();
+        boxedNumbers = IntStream.rangeClosed(1, size).boxed().toArray(Integer[]::new);
+    }
+
+    @Benchmark
+    public long boxedReduce() {
+        int min = Stream.of(boxedNumbers).min(Comparator.naturalOrder()).orElse(0);
+        int max = Stream.of(boxedNumbers).max(Comparator.naturalOrder()).orElse(0);
+        int sum = Stream.of(boxedNumbers).reduce(0, Integer::sum);
+        int product = Stream.of(boxedNumbers).reduce(1, (value, item) -> value * item);
+        return min + max + sum + product;
+    }
+
+    @Benchmark
+    public long primitiveStream() {
+        int min = IntStream.of(numbers).min().orElse(0);
+        int max = IntStream.of(numbers).max().orElse(0);
+        int sum = IntStream.of(numbers).sum();
+        int product = IntStream.of(numbers).reduce(1, (value, item) -> value * item);
+        return min + max + sum + product;
+    }
+
+    @Benchmark
+    public long primitiveAggregate() {
+        PrimitiveAggregate aggregate = PrimitiveAggregate.of(numbers);
+        // the product, also an overflowed one, is computed in the same pass
+        return aggregate.min() + aggregate.max() + aggregate.sum() + aggregate.product().longValue();
+    }
+}
@@ -0,0 +1,50 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import setianjay.stream.collector.IntKeyMap;
+import setianjay.stream.collector.IntList;
+import setianjay.stream.collector.Partition;
+import setianjay.stream.collector.PrimitiveCollectors;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compare {@link PrimitiveCollectors} with {@code Collectors.groupingBy} and {@code Collectors.partitioningBy} of
+ * {@code StreamTest.FilteringStreamTest}, run with {@code -prof gc} to see the allocation per element.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(value = Scope.Benchmark)
+public class PrimitiveGroupingBenchmark {
+
+    @Param(value = {"2", "1000", "100000"})
+    public int keys;
+
+    @Benchmark
+    public Map<Integer, List<Integer>> boxedGroupingBy(NumberState state) {
+        int keys = this.keys;
+        return state.boxed().collect(Collectors.groupingBy(number -> number % keys));
+    }
+
+    @Benchmark
+    public IntKeyMap<IntList> primitiveGroupingBy(NumberState state) {
+        int keys = this.keys;
+        return PrimitiveCollectors.groupingBy(state.ints(), number -> number % keys);
+    }
+
+    @Benchmark
+    public Map<Boolean, List<Integer>> boxedPartitioningBy(NumberState state) {
+        return state.boxed().collect(Collectors.partitioningBy(number -> number % 2 == 0));
+    }
+
+    @Benchmark
+    public Partition<IntList> primitivePartitioningBy(NumberState state) {
+        return PrimitiveCollectors.partitioningBy(state.ints(), number -> number % 2 == 0);
+    }
+}
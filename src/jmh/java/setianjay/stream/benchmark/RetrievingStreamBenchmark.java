@@ -0,0 +1,61 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@code StreamTest.RetrievingStreamTest}, every operation is cut in the middle of the input.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RetrievingStreamBenchmark {
+
+    // sum() instead of count(), the count of a SIZED pipeline is computed without traversing it
+    @Benchmark
+    public long limit(NumberState state) {
+        return state.isBoxed()
+                ? state.boxed().limit(state.size / 2).mapToLong(Integer::longValue).sum()
+                : state.ints().limit(state.size / 2).asLongStream().sum();
+    }
+
+    @Benchmark
+    public long skip(NumberState state) {
+        return state.isBoxed()
+                ? state.boxed().skip(state.size / 2).mapToLong(Integer::longValue).sum()
+                : state.ints().skip(state.size / 2).asLongStream().sum();
+    }
+
+    @Benchmark
+    public int findAny(NumberState state) {
+        return state.isBoxed()
+                ? state.boxed().findAny().orElse(0)
+                : state.ints().findAny().orElse(0);
+    }
+
+    @Benchmark
+    public int findFirst(NumberState state) {
+        return state.isBoxed()
+                ? state.boxed().findFirst().orElse(0)
+                : state.ints().findFirst().orElse(0);
+    }
+
+    @Benchmark
+    public long takeWhile(NumberState state) {
+        int half = state.size / 2;
+        return state.isBoxed()
+                ? state.boxed().takeWhile(number -> number < half).count()
+                : state.ints().takeWhile(number -> number < half).count();
+    }
+
+    @Benchmark
+    public long dropWhile(NumberState state) {
+        int half = state.size / 2;
+        return state.isBoxed()
+                ? state.boxed().dropWhile(number -> number < half).count()
+                : state.ints().dropWhile(number -> number < half).count();
+    }
+}
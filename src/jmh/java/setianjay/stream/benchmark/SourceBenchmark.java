@@ -0,0 +1,72 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import setianjay.stream.source.Sources;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Compare the sources of the same numbers on a parallel sum, {@code Stream.builder()} and an {@code Iterator} source
+ * against the chunked {@link Sources} with different minimum chunk.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(value = Scope.Benchmark)
+public class SourceBenchmark {
+
+    @Param(value = {"1000", "100000", "10000000"})
+    public int size;
+
+    @Param(value = {"256", "1024", "16384"})
+    public int minChunk;
+
+    private int[] numbers;
+
+    private Integer[] boxedNumbers;
+
+    @Setup(value = Level.Trial)
+    public void setup() {
+        numbers = new int[size];
+        Arrays.setAll(numbers, index -> index + 1);
+        boxedNumbers = Arrays.stream(numbers).boxed().toArray(Integer[]::new);
+    }
+
+    @Benchmark
+    public long builder() {
+        Stream.Builder<Integer> builder = Stream.builder();
+        for (Integer number : boxedNumbers) {
+            builder.add(number);
+        }
+        return builder.build().parallel().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long iterator() {
+        Spliterator<Integer> spliterator = Spliterators.spliteratorUnknownSize(
+                Arrays.asList(boxedNumbers).iterator(), Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, true).mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long arrays() {
+        return Arrays.stream(numbers).parallel().asLongStream().sum();
+    }
+
+    @Benchmark
+    public long chunked() {
+        return Sources.stream(numbers, minChunk).parallel().asLongStream().sum();
+    }
+
+    @Benchmark
+    public long range() {
+        return Sources.range(1, size + 1L, minChunk).parallel().sum();
+    }
+}
@@ -0,0 +1,35 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import setianjay.stream.aggregate.Statistics;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare one {@link Statistics} pass with the four pipelines of {@code StreamTest.AggregateStreamTest}.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StatisticsBenchmark {
+
+    @Benchmark
+    public double repeatedScan(NumberState state) {
+        double min = state.boxed().min(Comparator.naturalOrder()).orElse(0);
+        double max = state.boxed().max(Comparator.naturalOrder()).orElse(0);
+        double sum = state.boxed().reduce(0, Integer::sum);
+        double average = state.boxed().mapToInt(Integer::intValue).average().orElse(0.0);
+        return min + max + sum + average;
+    }
+
+    @Benchmark
+    public double singleScan(NumberState state) {
+        Statistics statistics = state.isBoxed()
+                ? state.boxed().collect(Statistics.collector(Integer::doubleValue))
+                : Statistics.of(state.ints());
+        return statistics.getMin() + statistics.getMax() + statistics.getSum() + statistics.getMean();
+    }
+}
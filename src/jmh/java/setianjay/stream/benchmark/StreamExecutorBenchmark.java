@@ -0,0 +1,80 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import setianjay.stream.execution.StreamExecutor;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+/**
+ * Latency of a small CPU bound parallel pipeline while a slow blocking pipeline runs in the background. With
+ * {@code COMMON} both run on the common pool, with {@code DEDICATED} both run on their own {@link StreamExecutor}.
+ */
+@BenchmarkMode(value = Mode.SampleTime)
+@OutputTimeUnit(value = TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1)
+@State(value = Scope.Benchmark)
+public class StreamExecutorBenchmark {
+
+    public enum Isolation {
+        COMMON, DEDICATED
+    }
+
+    @Param
+    public Isolation isolation;
+
+    private StreamExecutor fastExecutor;
+    private StreamExecutor slowExecutor;
+    private Thread slowJob;
+    private volatile boolean running;
+
+    @Setup(value = Level.Trial)
+    public void setup() {
+        int parallelism = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        fastExecutor = StreamExecutor.create("fast", parallelism);
+        slowExecutor = StreamExecutor.create("slow", parallelism);
+        running = true;
+
+        // the slow job block every worker it gets for 1 ms per element
+        Runnable slowPipeline = () -> IntStream.range(0, 1_000)
+                .parallel()
+                .forEach(item -> LockSupport.parkNanos(1_000_000));
+        slowJob = new Thread(() -> {
+            while (running) {
+                if (isolation == Isolation.COMMON) {
+                    slowPipeline.run();
+                } else {
+                    slowExecutor.run(slowPipeline);
+                }
+            }
+        }, "slow-job");
+        slowJob.start();
+    }
+
+    @TearDown(value = Level.Trial)
+    public void tearDown() throws InterruptedException {
+        running = false;
+        slowJob.join();
+        fastExecutor.close();
+        slowExecutor.close();
+    }
+
+    @Benchmark
+    public long fastPipeline() {
+        if (isolation == Isolation.COMMON) {
+            return fastCount();
+        }
+        return fastExecutor.execute(StreamExecutorBenchmark::fastCount);
+    }
+
+    private static long fastCount() {
+        return IntStream.range(0, 100_000)
+                .parallel()
+                .filter(number -> number % 3 == 0)
+                .count();
+    }
+}
@@ -0,0 +1,75 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import setianjay.stream.collector.StripedCollectors;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compare {@link StripedCollectors#groupingBy} with {@code Collectors.groupingBy} and
+ * {@code Collectors.groupingByConcurrent} on a parallel stream of 10M elements. The scaling over the cores is measured
+ * by running the benchmark on a pool with the given parallelism.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(value = Scope.Benchmark)
+public class StripedGroupingBenchmark {
+
+    private static final int SIZE = 10_000_000;
+
+    @Param(value = {"1000", "100000", "10000000"})
+    public int keys;
+
+    @Param(value = {"1", "2", "4", "8"})
+    public int parallelism;
+
+    private Integer[] numbers;
+
+    private ForkJoinPool pool;
+
+    @Setup(value = Level.Trial)
+    public void setup() {
+        // the key of a number is number % keys, so every key has the same number of elements
+        numbers = IntStream.range(0, SIZE).boxed().toArray(Integer[]::new);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(value = Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Map<Integer, List<Integer>> groupingBy() {
+        int keys = this.keys;
+        return pool.submit(() -> IntStream.range(0, SIZE).parallel()
+                .mapToObj(index -> numbers[index])
+                .collect(Collectors.groupingBy(number -> number % keys))).join();
+    }
+
+    @Benchmark
+    public Map<Integer, List<Integer>> groupingByConcurrent() {
+        int keys = this.keys;
+        return pool.submit(() -> IntStream.range(0, SIZE).parallel()
+                .mapToObj(index -> numbers[index])
+                .collect(Collectors.groupingByConcurrent(number -> number % keys))).join();
+    }
+
+    @Benchmark
+    public Map<Integer, List<Integer>> stripedGroupingBy() {
+        int keys = this.keys;
+        int shards = Integer.highestOneBit(parallelism * 4 - 1) << 1;
+        return pool.submit(() -> IntStream.range(0, SIZE).parallel()
+                .mapToObj(index -> numbers[index])
+                .collect(StripedCollectors.groupingBy(number -> number % keys, Collectors.toList(), shards,
+                        StripedCollectors.DEFAULT_BATCH_SIZE))).join();
+    }
+}
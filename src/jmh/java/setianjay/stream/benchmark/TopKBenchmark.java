@@ -0,0 +1,48 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import setianjay.stream.sort.TopK;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compare {@link TopK#smallest} with {@code sorted().limit(k)}, the numbers are generated by the stream so only the
+ * sort has to hold the whole input.
+ */
+@BenchmarkMode(value = Mode.AverageTime)
+@OutputTimeUnit(value = TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(value = Scope.Benchmark)
+public class TopKBenchmark {
+
+    @Param(value = {"1000000", "10000000", "100000000"})
+    public int size;
+
+    @Param(value = {"10", "1000"})
+    public int k;
+
+    @Param
+    public NumberState.Execution execution;
+
+    private Stream<Integer> numbers() {
+        // a cheap pseudo random permutation, so the input is not already sorted
+        IntStream numbers = IntStream.range(0, size).map(number -> number * 0x9E3779B9);
+        return (execution == NumberState.Execution.PARALLEL ? numbers.parallel() : numbers).boxed();
+    }
+
+    @Benchmark
+    public List<Integer> sortedLimit() {
+        return numbers().sorted().limit(k).toList();
+    }
+
+    @Benchmark
+    public List<Integer> topK() {
+        return numbers().collect(TopK.smallest(k, Comparator.naturalOrder()));
+    }
+}
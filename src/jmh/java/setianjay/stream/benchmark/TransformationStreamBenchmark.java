@@ -0,0 +1,35 @@
+package setianjay.stream.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark for {@code StreamTest.TransformationStreamTest}, the key is the name itself because the length of the
+ * name is not unique on a big input.
+ */
+@BenchmarkMode(value = Mode.Throughput)
+@OutputTimeUnit(value = TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TransformationStreamBenchmark {
+
+    @Benchmark
+    public Map<String, Integer> withMap(NameState state) {
+        return state.names()
+                .map(String::toUpperCase)
+                .collect(Collectors.toMap(Function.identity(), String::length));
+    }
+
+    @Benchmark
+    public Map<String, Integer> withFlatMap(NameState state) {
+        return state.names()
+                .flatMap(name -> Stream.of(name.toUpperCase()))
+                .collect(Collectors.toMap(Function.identity(), String::length));
+    }
+}
@@ -0,0 +1,210 @@
+package setianjay.stream.aggregate;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Min, max, sum, product and average of an {@code int[]} or {@code long[]} computed in one pass, without boxing the
+ * content like {@code Stream<Integer>.reduce(...)} does.
+ *
+ * <p>The product is kept in a {@code long} while it fits. When it overflows the pass starts a new {@code long}
+ * chunk, and the chunks are multiplied to a {@link BigInteger} at the end of the pass. So {@link #product()} is always
+ * exact and {@link #productExact()} tells the overflow instead of silently wrapping like
+ * {@code reduce(1, (value, item) -> value * item)}. The source is not kept, changing it later changes nothing.
+ */
+public final class PrimitiveAggregate {
+
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    private long sum;
+    private long product = 1L;
+    // null as long as the product fits in a long
+    private BigInteger bigProduct;
+
+    private PrimitiveAggregate() {
+    }
+
+    public static PrimitiveAggregate of(int[] values) {
+        return of(values, 0, values.length);
+    }
+
+    /**
+     * Aggregate {@code values[from, to)}.
+     */
+    public static PrimitiveAggregate of(int[] values, int from, int to) {
+        checkRange(values.length, from, to);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long sum = 0L;
+        // product of the current chunk, the chunks before it are in chunks
+        long product = 1L;
+        long[] chunks = null;
+        int chunkCount = 0;
+        for (int i = from; i < to; i++) {
+            int value = values[i];
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value; // int[] never overflow a long sum
+            long high = Math.multiplyHigh(product, value);
+            long low = product * value;
+            // the product fits in a long if the high part is only the sign extension of the low part
+            if (high == (low >> 63)) {
+                product = low;
+            } else {
+                chunks = append(chunks, chunkCount++, product);
+                product = value;
+            }
+        }
+        return result(to - from, min, max, sum, product, chunks, chunkCount);
+    }
+
+    public static PrimitiveAggregate of(long[] values) {
+        return of(values, 0, values.length);
+    }
+
+    /**
+     * Aggregate {@code values[from, to)}. The sum wraps on overflow, the same with {@code LongStream.sum()}.
+     */
+    public static PrimitiveAggregate of(long[] values, int from, int to) {
+        checkRange(values.length, from, to);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long sum = 0L;
+        long product = 1L;
+        long[] chunks = null;
+        int chunkCount = 0;
+        for (int i = from; i < to; i++) {
+            long value = values[i];
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            long high = Math.multiplyHigh(product, value);
+            long low = product * value;
+            if (high == (low >> 63)) {
+                product = low;
+            } else {
+                chunks = append(chunks, chunkCount++, product);
+                product = value;
+            }
+        }
+        return result(to - from, min, max, sum, product, chunks, chunkCount);
+    }
+
+    private static void checkRange(int length, int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("range [" + from + ", " + to + ") out of bounds for length " + length);
+        }
+    }
+
+    private static long[] append(long[] chunks, int size, long chunk) {
+        if (chunks == null) {
+            chunks = new long[8];
+        } else if (size == chunks.length) {
+            chunks = Arrays.copyOf(chunks, size * 2);
+        }
+        chunks[size] = chunk;
+        return chunks;
+    }
+
+    private static PrimitiveAggregate result(long count, long min, long max, long sum, long product, long[] chunks,
+                                             int chunkCount) {
+        PrimitiveAggregate aggregate = new PrimitiveAggregate();
+        aggregate.count = count;
+        aggregate.min = min;
+        aggregate.max = max;
+        aggregate.sum = sum;
+        aggregate.product = product;
+        // a zero makes the last chunk and the whole product zero
+        if (chunkCount > 0 && product != 0L) {
+            chunks = append(chunks, chunkCount++, product);
+            aggregate.bigProduct = productOf(chunks, 0, chunkCount);
+        }
+        return aggregate;
+    }
+
+    /**
+     * Product of {@code chunks[from, to)}, the range is split in half so the multiplied numbers have similar size.
+     */
+    private static BigInteger productOf(long[] chunks, int from, int to) {
+        if (to - from <= 4) {
+            BigInteger result = BigInteger.valueOf(chunks[from]);
+            for (int i = from + 1; i < to; i++) {
+                result = result.multiply(BigInteger.valueOf(chunks[i]));
+            }
+            return result;
+        }
+
+        int middle = (from + to) >>> 1;
+        return productOf(chunks, from, middle).multiply(productOf(chunks, middle, to));
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * @throws NoSuchElementException if there is no element
+     */
+    public long min() {
+        checkNotEmpty();
+        return min;
+    }
+
+    /**
+     * @throws NoSuchElementException if there is no element
+     */
+    public long max() {
+        checkNotEmpty();
+        return max;
+    }
+
+    public long sum() {
+        return sum;
+    }
+
+    /**
+     * @return average of the elements, or 0.0 if there is no element
+     */
+    public double average() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * @return {@code true} if the product fits in a long, the product of no element is 1
+     */
+    public boolean isProductExact() {
+        return bigProduct == null;
+    }
+
+    /**
+     * @throws ArithmeticException if the product overflow a long
+     */
+    public long productExact() {
+        if (!isProductExact()) {
+            throw new ArithmeticException("long overflow");
+        }
+        return product;
+    }
+
+    public BigInteger product() {
+        return isProductExact() ? BigInteger.valueOf(product) : bigProduct;
+    }
+
+    private void checkNotEmpty() {
+        if (count == 0) {
+            throw new NoSuchElementException("No value present");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PrimitiveAggregate{count=" + count + ", min=" + min + ", max=" + max + ", sum=" + sum
+                + ", productExact=" + isProductExact() + "}";
+    }
+}
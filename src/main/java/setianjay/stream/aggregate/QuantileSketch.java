@@ -0,0 +1,186 @@
+package setianjay.stream.aggregate;
+
+/**
+ * Mergeable approximate quantile sketch with relative accuracy. Every value is counted in a logarithmic bucket
+ * {@code ceil(log(|value|) / log(gamma))}, so a quantile is off at most by {@code relativeAccuracy} of its value and
+ * two sketches are merged by adding the bucket counts.
+ *
+ * <p>The infinities and NaN are counted apart from the buckets, in the order of {@link Double#compare(double, double)}:
+ * negative infinity first and NaN last. The bucket index is clamped to {@code [-MAX_INDEX, MAX_INDEX]}, so a tiny
+ * relative accuracy does not overflow the index. Only the finite values outside that range lose the accuracy.
+ */
+final class QuantileSketch {
+
+    // values smaller than this are counted as zero, so the bucket index stays in a small range
+    private static final double MIN_INDEXABLE = 1e-300;
+    // the dense bucket counts of a sign never grow past 2 * MAX_INDEX + 1 buckets
+    private static final int MAX_INDEX = 1 << 20;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final Buckets positive = new Buckets();
+    private final Buckets negative = new Buckets();
+    private long zeroCount;
+    private long negativeInfinityCount;
+    private long positiveInfinityCount;
+    private long nanCount;
+
+    QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0.0 && relativeAccuracy < 1.0)) {
+            throw new IllegalArgumentException("relativeAccuracy must be in (0, 1): " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    double relativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    void accept(double value) {
+        if (value == Double.POSITIVE_INFINITY) {
+            positiveInfinityCount++;
+        } else if (value == Double.NEGATIVE_INFINITY) {
+            negativeInfinityCount++;
+        } else if (value > MIN_INDEXABLE) {
+            positive.increment(index(value));
+        } else if (value < -MIN_INDEXABLE) {
+            negative.increment(index(-value));
+        } else if (Double.isNaN(value)) {
+            nanCount++;
+        } else {
+            zeroCount++;
+        }
+    }
+
+    void combine(QuantileSketch other) {
+        if (other.gamma != gamma) {
+            throw new IllegalArgumentException("can not combine sketches with different relative accuracy");
+        }
+        positive.add(other.positive);
+        negative.add(other.negative);
+        zeroCount += other.zeroCount;
+        negativeInfinityCount += other.negativeInfinityCount;
+        positiveInfinityCount += other.positiveInfinityCount;
+        nanCount += other.nanCount;
+    }
+
+    long count() {
+        return negativeInfinityCount + negative.total + zeroCount + positive.total + positiveInfinityCount + nanCount;
+    }
+
+    /**
+     * @param quantile in [0, 1]
+     * @return approximate value of the quantile, or NaN if the sketch is empty
+     */
+    double quantile(double quantile) {
+        long count = count();
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        long rank = (long) (quantile * (count - 1));
+        if (rank < negativeInfinityCount) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        rank -= negativeInfinityCount;
+        // negative values, the biggest index is the smallest value
+        if (rank < negative.total) {
+            return -value(negative.keyAtDescending(rank));
+        }
+        rank -= negative.total;
+        if (rank < zeroCount) {
+            return 0.0;
+        }
+        rank -= zeroCount;
+        if (rank < positive.total) {
+            return value(positive.keyAtAscending(rank));
+        }
+        rank -= positive.total;
+        return rank < positiveInfinityCount ? Double.POSITIVE_INFINITY : Double.NaN;
+    }
+
+    private int index(double value) {
+        double index = Math.ceil(Math.log(value) / logGamma);
+        return (int) Math.max(-MAX_INDEX, Math.min(MAX_INDEX, index));
+    }
+
+    // the middle of bucket (gamma^(index - 1), gamma^index], relatively close to both edges
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    /**
+     * Dense bucket counts, {@code counts[i]} holds the count of bucket {@code offset + i}.
+     */
+    private static final class Buckets {
+
+        private long[] counts = new long[0];
+        private int offset;
+        private long total;
+
+        void increment(int key) {
+            ensureRange(key, key);
+            counts[key - offset]++;
+            total++;
+        }
+
+        void add(Buckets other) {
+            if (other.total == 0) {
+                return;
+            }
+            ensureRange(other.offset, other.offset + other.counts.length - 1);
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[other.offset + i - offset] += other.counts[i];
+            }
+            total += other.total;
+        }
+
+        int keyAtAscending(long rank) {
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen > rank) {
+                    return offset + i;
+                }
+            }
+            return offset + counts.length - 1;
+        }
+
+        int keyAtDescending(long rank) {
+            long seen = 0;
+            for (int i = counts.length - 1; i >= 0; i--) {
+                seen += counts[i];
+                if (seen > rank) {
+                    return offset + i;
+                }
+            }
+            return offset;
+        }
+
+        private void ensureRange(int minKey, int maxKey) {
+            if (counts.length == 0) {
+                counts = new long[maxKey - minKey + 1];
+                offset = minKey;
+                return;
+            }
+
+            int currentMax = offset + counts.length - 1;
+            if (minKey >= offset && maxKey <= currentMax) {
+                return;
+            }
+
+            // grow with some slack on the side that is extended, the key of the next value is likely close. The
+            // slack stays in [-MAX_INDEX, MAX_INDEX], the keys are already clamped to it
+            int newMin = minKey < offset ? Math.max(-MAX_INDEX, Math.min(minKey, offset - counts.length / 2)) : offset;
+            int newMax = maxKey > currentMax ? Math.min(MAX_INDEX, Math.max(maxKey, currentMax + counts.length / 2))
+                    : currentMax;
+            long[] newCounts = new long[newMax - newMin + 1];
+            System.arraycopy(counts, 0, newCounts, offset - newMin, counts.length);
+            counts = newCounts;
+            offset = newMin;
+        }
+    }
+}
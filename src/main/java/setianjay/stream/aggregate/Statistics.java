@@ -0,0 +1,212 @@
+package setianjay.stream.aggregate;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Count, sum, min, max, mean, variance and approximate percentiles computed in one pass, instead of one
+ * {@code Stream.of(...)} pipeline for every aggregate like in {@code StreamTest.AggregateStreamTest}.
+ *
+ * <p>Two statistics are merged with {@link #combine(Statistics)}, the mean and variance are merged with the parallel
+ * algorithm of Chan et al. and the percentiles with a {@link QuantileSketch}, so the result of a {@code .parallel()}
+ * stream is the same with the sequential one (up to floating point rounding).
+ *
+ * <pre>{@code
+ * Statistics statistics = Statistics.of(IntStream.rangeClosed(1, 10).parallel());
+ * Statistics statistics = people.stream().collect(Statistics.collector(Person::getAge));
+ * }</pre>
+ *
+ * <p>The statistics is a {@link DoubleConsumer}, {@code statistics::accept} is also an {@code IntConsumer} and a
+ * {@code LongConsumer}. Implementing the three interfaces would inherit three ambiguous {@code andThen}.
+ */
+public final class Statistics implements DoubleConsumer {
+
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double mean;
+    // sum of squares of differences from the mean (Welford)
+    private double m2;
+    // Kahan summation, the same with DoubleSummaryStatistics
+    private double sum;
+    private double sumCompensation;
+    private final QuantileSketch sketch;
+
+    public Statistics() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /**
+     * @param relativeAccuracy maximum relative error of {@link #percentile(double)}, for example 0.01 for 1%
+     */
+    public Statistics(double relativeAccuracy) {
+        this.sketch = new QuantileSketch(relativeAccuracy);
+    }
+
+    public static <T> Collector<T, ?, Statistics> collector(ToDoubleFunction<? super T> mapper) {
+        return collector(mapper, DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    public static <T> Collector<T, ?, Statistics> collector(ToDoubleFunction<? super T> mapper,
+                                                           double relativeAccuracy) {
+        return Collector.of(
+                () -> new Statistics(relativeAccuracy),
+                (statistics, item) -> statistics.accept(mapper.applyAsDouble(item)),
+                Statistics::combine,
+                Collector.Characteristics.UNORDERED
+        );
+    }
+
+    public static Statistics of(IntStream stream) {
+        return stream.collect(Statistics::new, Statistics::accept, Statistics::combine);
+    }
+
+    public static Statistics of(LongStream stream) {
+        return stream.collect(Statistics::new, Statistics::accept, Statistics::combine);
+    }
+
+    public static Statistics of(DoubleStream stream) {
+        return stream.collect(Statistics::new, Statistics::accept, Statistics::combine);
+    }
+
+    public void accept(int value) {
+        accept((double) value);
+    }
+
+    public void accept(long value) {
+        accept((double) value);
+    }
+
+    @Override
+    public void accept(double value) {
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+
+        sumWithCompensation(value);
+        sketch.accept(value);
+    }
+
+    /**
+     * Merge the other statistics into this one.
+     *
+     * @return this statistics
+     */
+    public Statistics combine(Statistics other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            mean = other.mean;
+            m2 = other.m2;
+        } else {
+            long total = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / total;
+            m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        }
+
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sumWithCompensation(other.sum);
+        sumWithCompensation(-other.sumCompensation);
+        sketch.combine(other.sketch);
+        return this;
+    }
+
+    private void sumWithCompensation(double value) {
+        double compensated = value - sumCompensation;
+        double total = sum + compensated;
+        sumCompensation = (total - sum) - compensated;
+        sum = total;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum - sumCompensation;
+    }
+
+    /**
+     * @return the minimum value, or {@code Double.POSITIVE_INFINITY} if there is no value
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * @return the maximum value, or {@code Double.NEGATIVE_INFINITY} if there is no value
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return the mean, or 0.0 if there is no value
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * @return the population variance, or 0.0 if there is no value
+     */
+    public double getVariance() {
+        return count == 0 ? 0.0 : m2 / count;
+    }
+
+    /**
+     * @return the sample variance, or 0.0 if there is less than two values
+     */
+    public double getSampleVariance() {
+        return count < 2 ? 0.0 : m2 / (count - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Approximate percentile, the relative error is at most the relative accuracy of this statistics. The 0 and 100
+     * percentile are exactly the min and max.
+     *
+     * @param percentile in [0, 100], for example 50 for the median or 99 for the p99
+     * @return the percentile, or NaN if there is no value or a value is NaN, the same with the mean
+     */
+    public double percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be in [0, 100]: " + percentile);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (percentile == 0) {
+            return min;
+        }
+        if (percentile == 100) {
+            return max;
+        }
+
+        double value = sketch.quantile(percentile / 100);
+        return Math.max(min, Math.min(max, value));
+    }
+
+    @Override
+    public String toString() {
+        return "Statistics{count=" + count + ", sum=" + getSum() + ", min=" + min + ", max=" + max
+                + ", mean=" + mean + ", variance=" + getVariance() + ", median=" + percentile(50) + "}";
+    }
+}
@@ -0,0 +1,23 @@
+package setianjay.stream.collector;
+
+/**
+ * What {@link MapCollectors} does when two elements are mapped to the same key. The first and last are in encounter
+ * order, also on a parallel stream.
+ */
+public enum DuplicateKeyPolicy {
+
+    /**
+     * Keep the value of the first element.
+     */
+    FIRST_WINS,
+
+    /**
+     * Keep the value of the last element.
+     */
+    LAST_WINS,
+
+    /**
+     * Throw {@link IllegalStateException}, the same with {@code Collectors.toMap} without merge function.
+     */
+    FAIL
+}
@@ -0,0 +1,242 @@
+package setianjay.stream.collector;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.LongFunction;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Open addressing hash map with {@code long} keys, the keys are kept in a {@code long[]} and found with linear probing,
+ * so there is no boxed key and no node object per entry like in {@code HashMap}. The value must not be null, a null
+ * value marks an empty slot.
+ *
+ * @param <V> type of the value
+ */
+public final class LongKeyMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+    private int resizeThreshold;
+
+    public LongKeyMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize number of keys that can be put without resize
+     */
+    public LongKeyMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+        }
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public V get(long key) {
+        int slot = find(key);
+        return slot < 0 ? null : value(slot);
+    }
+
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * @return the previous value of the key, or null if there is no previous value
+     */
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value must not be null");
+        }
+
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V previous = value(slot);
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        insert(slot, key, value);
+        return null;
+    }
+
+    /**
+     * @return the current value of the key, or null if the key is absent and the value is put
+     */
+    public V putIfAbsent(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value must not be null");
+        }
+
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return value(slot);
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        insert(slot, key, value);
+        return null;
+    }
+
+    public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return value(slot);
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        V value = mappingFunction.apply(key);
+        if (value != null) {
+            insert(slot, key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Put the value if the key is absent, otherwise replace the value with the result of the merge function.
+     *
+     * @return the new value of the key
+     */
+    public V merge(long key, V value, BiFunction<? super V, ? super V, ? extends V> mergeFunction) {
+        if (value == null) {
+            throw new NullPointerException("value must not be null");
+        }
+
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V merged = Objects.requireNonNull(mergeFunction.apply(value(slot), value),
+                        "merged value must not be null");
+                values[slot] = merged;
+                return merged;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        insert(slot, key, value);
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long[] keys() {
+        long[] result = new long[size];
+        int index = 0;
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != null) {
+                result[index++] = keys[slot];
+            }
+        }
+        return result;
+    }
+
+    public void forEach(ObjLongConsumer<? super V> action) {
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != null) {
+                action.accept(value(slot), keys[slot]);
+            }
+        }
+    }
+
+    /**
+     * Copy to a boxed {@link Map}, to be used with the code that need {@code Map<Long, V>}.
+     */
+    public Map<Long, V> toMap() {
+        Map<Long, V> map = new HashMap<>((int) (size / 0.75f) + 1);
+        forEach((value, key) -> map.put(key, value));
+        return map;
+    }
+
+    private int find(long key) {
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(int slot, long key, V value) {
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeThreshold) {
+            rehash(values.length << 1);
+        }
+    }
+
+    // spread the key with the golden ratio, so sequential keys does not cluster in the same probe run
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * 0.7f);
+    }
+
+    // the smallest power of two that keeps expectedSize under the load factor
+    private static int tableSizeFor(int expectedSize) {
+        long needed = Math.max(DEFAULT_CAPACITY, (long) Math.ceil(expectedSize / 0.7));
+        if (needed > (1 << 30)) {
+            throw new IllegalArgumentException("expectedSize is too big: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    @SuppressWarnings(value = "unchecked")
+    private V value(int slot) {
+        return (V) values[slot];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((value, key) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+}
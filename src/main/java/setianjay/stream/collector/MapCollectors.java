@@ -0,0 +1,239 @@
+package setianjay.stream.collector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * toMap with an expected size and a selectable {@link DuplicateKeyPolicy}. {@code Collectors.toMap} without merge
+ * function fails the whole stream on the first duplicate key and starts from the default capacity, so a big map is
+ * resized again and again. Here the map is created with room for {@code expectedSize} keys, so there is no resize as
+ * long as the hint is right.
+ *
+ * <p>Only the first map of a collect is presized. On a parallel stream the other splits start from the default
+ * capacity, and the merge keeps the presized map as the target, so the hint is not allocated once per split and the
+ * final map is still not resized.
+ *
+ * <pre>{@code
+ * Map<Integer, String> nameByLength = names.stream()
+ *         .collect(MapCollectors.toMap(String::length, name -> name, names.size(), DuplicateKeyPolicy.FIRST_WINS));
+ * }</pre>
+ */
+public final class MapCollectors {
+
+    private static final Object CLAIMED = new Object();
+
+    private MapCollectors() {
+    }
+
+    public static <T, K, U> Collector<T, ?, Map<K, U>> toMap(Function<? super T, ? extends K> keyMapper,
+                                                            Function<? super T, ? extends U> valueMapper,
+                                                            int expectedSize,
+                                                            DuplicateKeyPolicy policy) {
+        Objects.requireNonNull(policy);
+        return collector(expectedSize, HashMap::newHashMap, HashMap::new,
+                (map, item) -> put(map, keyMapper.apply(item), valueMapper.apply(item), policy, false),
+                (target, source, earlier) -> source.forEach((key, value) -> put(target, key, value, policy, earlier)));
+    }
+
+    /**
+     * Combine the values of a duplicate key with the merge function, in encounter order.
+     */
+    public static <T, K, U> Collector<T, ?, Map<K, U>> toMap(Function<? super T, ? extends K> keyMapper,
+                                                            Function<? super T, ? extends U> valueMapper,
+                                                            int expectedSize,
+                                                            BinaryOperator<U> mergeFunction) {
+        Objects.requireNonNull(mergeFunction);
+        return collector(expectedSize, HashMap::newHashMap, HashMap::new,
+                (map, item) -> map.merge(keyMapper.apply(item), valueMapper.apply(item), mergeFunction),
+                (target, source, earlier) -> source.forEach((key, value) ->
+                        target.merge(key, value, inOrder(mergeFunction, earlier))));
+    }
+
+    /**
+     * Keep every value of a duplicate key in a list, in encounter order.
+     */
+    public static <T, K, U> Collector<T, ?, Map<K, List<U>>> toMapCollectingDuplicates(
+            Function<? super T, ? extends K> keyMapper,
+            Function<? super T, ? extends U> valueMapper,
+            int expectedSize) {
+        BinaryOperator<List<U>> concat = (first, last) -> {
+            first.addAll(last);
+            return first;
+        };
+        return collector(expectedSize, HashMap::newHashMap, HashMap::new,
+                (map, item) -> map.computeIfAbsent(keyMapper.apply(item), key -> new ArrayList<>(1))
+                        .add(valueMapper.apply(item)),
+                (target, source, earlier) -> source.forEach((key, values) ->
+                        target.merge(key, values, inOrder(concat, earlier))));
+    }
+
+    /**
+     * toMap with an {@code int} key, the map is an {@link IntKeyMap} so the key is not boxed.
+     */
+    public static <T, U> Collector<T, ?, IntKeyMap<U>> toIntKeyMap(ToIntFunction<? super T> keyMapper,
+                                                                  Function<? super T, ? extends U> valueMapper,
+                                                                  int expectedSize,
+                                                                  DuplicateKeyPolicy policy) {
+        Objects.requireNonNull(policy);
+        return collector(expectedSize, IntKeyMap::new, IntKeyMap::new,
+                (map, item) -> put(map, keyMapper.applyAsInt(item), valueMapper.apply(item), policy, false),
+                (target, source, earlier) -> source.forEach((value, key) -> put(target, key, value, policy, earlier)));
+    }
+
+    /**
+     * toMap with an {@code int} key, the values of a duplicate key are combined with the merge function, in encounter
+     * order.
+     */
+    public static <T, U> Collector<T, ?, IntKeyMap<U>> toIntKeyMap(ToIntFunction<? super T> keyMapper,
+                                                                  Function<? super T, ? extends U> valueMapper,
+                                                                  int expectedSize,
+                                                                  BinaryOperator<U> mergeFunction) {
+        Objects.requireNonNull(mergeFunction);
+        return collector(expectedSize, IntKeyMap::new, IntKeyMap::new,
+                (map, item) -> map.merge(keyMapper.applyAsInt(item), valueMapper.apply(item), mergeFunction),
+                (target, source, earlier) -> source.forEach((value, key) ->
+                        target.merge(key, value, inOrder(mergeFunction, earlier))));
+    }
+
+    /**
+     * toMap with a {@code long} key, the map is a {@link LongKeyMap} so the key is not boxed.
+     */
+    public static <T, U> Collector<T, ?, LongKeyMap<U>> toLongKeyMap(ToLongFunction<? super T> keyMapper,
+                                                                    Function<? super T, ? extends U> valueMapper,
+                                                                    int expectedSize,
+                                                                    DuplicateKeyPolicy policy) {
+        Objects.requireNonNull(policy);
+        return collector(expectedSize, LongKeyMap::new, LongKeyMap::new,
+                (map, item) -> put(map, keyMapper.applyAsLong(item), valueMapper.apply(item), policy, false),
+                (target, source, earlier) -> source.forEach((value, key) -> put(target, key, value, policy, earlier)));
+    }
+
+    /**
+     * toMap with a {@code long} key, the values of a duplicate key are combined with the merge function, in encounter
+     * order.
+     */
+    public static <T, U> Collector<T, ?, LongKeyMap<U>> toLongKeyMap(ToLongFunction<? super T> keyMapper,
+                                                                    Function<? super T, ? extends U> valueMapper,
+                                                                    int expectedSize,
+                                                                    BinaryOperator<U> mergeFunction) {
+        Objects.requireNonNull(mergeFunction);
+        return collector(expectedSize, LongKeyMap::new, LongKeyMap::new,
+                (map, item) -> map.merge(keyMapper.applyAsLong(item), valueMapper.apply(item), mergeFunction),
+                (target, source, earlier) -> source.forEach((value, key) ->
+                        target.merge(key, value, inOrder(mergeFunction, earlier))));
+    }
+
+    /**
+     * Merge the source map into the target map, {@code earlier} is true when the source values come before the target
+     * values in encounter order.
+     */
+    @FunctionalInterface
+    private interface Merger<M> {
+        void merge(M target, M source, boolean earlier);
+    }
+
+    private static <T, M> Collector<T, ?, M> collector(int expectedSize, IntFunction<M> presized, Supplier<M> unsized,
+                                                       BiConsumer<M, T> accumulator, Merger<M> merger) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+        }
+        // the presized map of the running collect, CLAIMED while it is created
+        AtomicReference<Object> first = new AtomicReference<>();
+        return Collector.<T, M, M>of(
+                () -> {
+                    if (first.get() == null && first.compareAndSet(null, CLAIMED)) {
+                        M map = presized.apply(expectedSize);
+                        first.set(map);
+                        return map;
+                    }
+                    return unsized.get();
+                },
+                (map, item) -> {
+                    try {
+                        accumulator.accept(map, item);
+                    } catch (RuntimeException | Error e) {
+                        // a failed collect does not reach the finisher, the next collect may presize again
+                        first.set(null);
+                        throw e;
+                    }
+                },
+                (left, right) -> {
+                    try {
+                        if (first.get() == right) {
+                            merger.merge(right, left, true);
+                            return right;
+                        }
+                        merger.merge(left, right, false);
+                        return left;
+                    } catch (RuntimeException | Error e) {
+                        first.set(null);
+                        throw e;
+                    }
+                },
+                map -> {
+                    first.set(null);
+                    return map;
+                }
+        );
+    }
+
+    // the merge function always sees the values in encounter order
+    private static <U> BinaryOperator<U> inOrder(BinaryOperator<U> mergeFunction, boolean earlier) {
+        return earlier ? (target, source) -> mergeFunction.apply(source, target) : mergeFunction;
+    }
+
+    private static <K, U> void put(Map<K, U> map, K key, U value, DuplicateKeyPolicy policy, boolean earlier) {
+        Objects.requireNonNull(value);
+        if (policy == (earlier ? DuplicateKeyPolicy.FIRST_WINS : DuplicateKeyPolicy.LAST_WINS)) {
+            map.put(key, value);
+            return;
+        }
+
+        U previous = map.putIfAbsent(key, value);
+        if (previous != null && policy == DuplicateKeyPolicy.FAIL) {
+            throw earlier ? duplicateKey(key, value, previous) : duplicateKey(key, previous, value);
+        }
+    }
+
+    private static <U> void put(IntKeyMap<U> map, int key, U value, DuplicateKeyPolicy policy, boolean earlier) {
+        if (policy == (earlier ? DuplicateKeyPolicy.FIRST_WINS : DuplicateKeyPolicy.LAST_WINS)) {
+            map.put(key, value);
+            return;
+        }
+
+        U previous = map.putIfAbsent(key, value);
+        if (previous != null && policy == DuplicateKeyPolicy.FAIL) {
+            throw earlier ? duplicateKey(key, value, previous) : duplicateKey(key, previous, value);
+        }
+    }
+
+    private static <U> void put(LongKeyMap<U> map, long key, U value, DuplicateKeyPolicy policy, boolean earlier) {
+        if (policy == (earlier ? DuplicateKeyPolicy.FIRST_WINS : DuplicateKeyPolicy.LAST_WINS)) {
+            map.put(key, value);
+            return;
+        }
+
+        U previous = map.putIfAbsent(key, value);
+        if (previous != null && policy == DuplicateKeyPolicy.FAIL) {
+            throw earlier ? duplicateKey(key, value, previous) : duplicateKey(key, previous, value);
+        }
+    }
+
+    // the same message with Collectors.toMap
+    private static IllegalStateException duplicateKey(Object key, Object first, Object last) {
+        return new IllegalStateException(String.format(
+                "Duplicate key %s (attempted merging values %s and %s)", key, first, last));
+    }
+}
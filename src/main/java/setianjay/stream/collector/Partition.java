@@ -0,0 +1,21 @@
+package setianjay.stream.collector;
+
+/**
+ * Result of a primitive partitioningBy, the same with {@code Map<Boolean, List<...>>} of
+ * {@code Collectors.partitioningBy} but without boxed key and value.
+ *
+ * @param matching     the values that match the predicate, like the {@code true} key
+ * @param notMatching  the values that does not match the predicate, like the {@code false} key
+ * @param <L>          type of the value buffer, {@link IntList} or {@link LongList}
+ */
+public record Partition<L>(L matching, L notMatching) {
+
+    public L get(boolean key) {
+        return key ? matching : notMatching;
+    }
+
+    @Override
+    public String toString() {
+        return "{false=" + notMatching + ", true=" + matching + "}";
+    }
+}
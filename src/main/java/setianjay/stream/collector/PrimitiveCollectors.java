@@ -0,0 +1,147 @@
+package setianjay.stream.collector;
+
+import java.util.EnumMap;
+import java.util.function.*;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * groupingBy and partitioningBy for {@code int} and {@code long} values, the keys are kept in an {@link IntKeyMap},
+ * {@link LongKeyMap} or {@link EnumMap} and the values in an {@link IntList} or {@link LongList}. Compared with
+ * {@code Collectors.groupingBy} there is no boxed key or value and no list node per element, a value only costs the
+ * size of the primitive (plus the unused capacity of the buffer).
+ *
+ * <p>The primitive streams do not accept a {@link Collector}, so they are passed as a parameter:
+ *
+ * <pre>{@code
+ * IntKeyMap<IntList> groups = PrimitiveCollectors.groupingBy(IntStream.rangeClosed(1, 10), number -> number % 2);
+ * Partition<IntList> partition = PrimitiveCollectors.partitioningBy(IntStream.rangeClosed(1, 10),
+ *         number -> number % 2 == 0);
+ * }</pre>
+ *
+ * The {@code Collector} variants group the objects of a {@code Stream<T>} by a primitive key and value extracted from
+ * every object.
+ */
+public final class PrimitiveCollectors {
+
+    private PrimitiveCollectors() {
+    }
+
+    public static IntKeyMap<IntList> groupingBy(IntStream values, IntUnaryOperator classifier) {
+        return values.collect(
+                IntKeyMap::new,
+                (map, value) -> map.computeIfAbsent(classifier.applyAsInt(value), key -> new IntList()).add(value),
+                PrimitiveCollectors::mergeIntLists
+        );
+    }
+
+    public static LongKeyMap<LongList> groupingBy(LongStream values, LongUnaryOperator classifier) {
+        return values.collect(
+                LongKeyMap::new,
+                (map, value) -> map.computeIfAbsent(classifier.applyAsLong(value), key -> new LongList()).add(value),
+                PrimitiveCollectors::mergeLongLists
+        );
+    }
+
+    public static <K extends Enum<K>> EnumMap<K, IntList> groupingByEnum(IntStream values,
+                                                                       Class<K> keyType,
+                                                                       IntFunction<K> classifier) {
+        return values.collect(
+                () -> new EnumMap<>(keyType),
+                (map, value) -> map.computeIfAbsent(classifier.apply(value), key -> new IntList()).add(value),
+                (left, right) -> right.forEach((key, list) -> left.merge(key, list, PrimitiveCollectors::addAll))
+        );
+    }
+
+    public static <K extends Enum<K>> EnumMap<K, LongList> groupingByEnum(LongStream values,
+                                                                        Class<K> keyType,
+                                                                        LongFunction<K> classifier) {
+        return values.collect(
+                () -> new EnumMap<>(keyType),
+                (map, value) -> map.computeIfAbsent(classifier.apply(value), key -> new LongList()).add(value),
+                (left, right) -> right.forEach((key, list) -> left.merge(key, list, PrimitiveCollectors::addAll))
+        );
+    }
+
+    public static Partition<IntList> partitioningBy(IntStream values, IntPredicate predicate) {
+        return values.collect(
+                () -> new Partition<>(new IntList(), new IntList()),
+                (partition, value) -> partition.get(predicate.test(value)).add(value),
+                (left, right) -> {
+                    left.matching().addAll(right.matching());
+                    left.notMatching().addAll(right.notMatching());
+                }
+        );
+    }
+
+    public static Partition<LongList> partitioningBy(LongStream values, LongPredicate predicate) {
+        return values.collect(
+                () -> new Partition<>(new LongList(), new LongList()),
+                (partition, value) -> partition.get(predicate.test(value)).add(value),
+                (left, right) -> {
+                    left.matching().addAll(right.matching());
+                    left.notMatching().addAll(right.notMatching());
+                }
+        );
+    }
+
+    public static <T> Collector<T, ?, IntKeyMap<IntList>> groupingByInt(ToIntFunction<? super T> classifier,
+                                                                       ToIntFunction<? super T> valueMapper) {
+        return Collector.of(
+                IntKeyMap::new,
+                (map, item) -> map.computeIfAbsent(classifier.applyAsInt(item), key -> new IntList())
+                        .add(valueMapper.applyAsInt(item)),
+                (left, right) -> {
+                    mergeIntLists(left, right);
+                    return left;
+                }
+        );
+    }
+
+    public static <T> Collector<T, ?, LongKeyMap<LongList>> groupingByLong(ToLongFunction<? super T> classifier,
+                                                                          ToLongFunction<? super T> valueMapper) {
+        return Collector.of(
+                LongKeyMap::new,
+                (map, item) -> map.computeIfAbsent(classifier.applyAsLong(item), key -> new LongList())
+                        .add(valueMapper.applyAsLong(item)),
+                (left, right) -> {
+                    mergeLongLists(left, right);
+                    return left;
+                }
+        );
+    }
+
+    public static <T, K extends Enum<K>> Collector<T, ?, EnumMap<K, IntList>> groupingByEnum(
+            Class<K> keyType,
+            Function<? super T, K> classifier,
+            ToIntFunction<? super T> valueMapper) {
+        return Collector.of(
+                () -> new EnumMap<>(keyType),
+                (map, item) -> map.computeIfAbsent(classifier.apply(item), key -> new IntList())
+                        .add(valueMapper.applyAsInt(item)),
+                (left, right) -> {
+                    right.forEach((key, list) -> left.merge(key, list, PrimitiveCollectors::addAll));
+                    return left;
+                }
+        );
+    }
+
+    private static void mergeIntLists(IntKeyMap<IntList> left, IntKeyMap<IntList> right) {
+        right.forEach((list, key) -> left.computeIfAbsent(key, k -> new IntList(list.size())).addAll(list));
+    }
+
+    private static void mergeLongLists(LongKeyMap<LongList> left, LongKeyMap<LongList> right) {
+        right.forEach((list, key) -> left.computeIfAbsent(key, k -> new LongList(list.size())).addAll(list));
+    }
+
+    private static IntList addAll(IntList left, IntList right) {
+        left.addAll(right);
+        return left;
+    }
+
+    private static LongList addAll(LongList left, LongList right) {
+        left.addAll(right);
+        return left;
+    }
+}
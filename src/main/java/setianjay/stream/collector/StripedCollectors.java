@@ -0,0 +1,315 @@
+package setianjay.stream.collector;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Concurrent groupingBy for parallel streams. The keys are spread over shards, every shard is a plain
+ * {@link HashMap} guarded by its own lock. A worker thread does not touch a shard for every element, it appends the
+ * element to its own buffer for that shard and only flushes the buffer into the shard (under the lock) once the
+ * buffer is full.
+ *
+ * <p>Compared with {@code Collectors.groupingBy} there is no map per thread to be merged at the end, and compared
+ * with {@code Collectors.groupingByConcurrent} the threads contend on a lock once per batch instead of a
+ * {@code ConcurrentHashMap} bin and the downstream container for every element.
+ *
+ * <p>The collector is {@link Collector.Characteristics#CONCURRENT} and {@link Collector.Characteristics#UNORDERED},
+ * so the values of a key are not in encounter order. The result is a read-only view over the shards.
+ */
+public final class StripedCollectors {
+
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private StripedCollectors() {
+    }
+
+    public static <T, K> Collector<T, ?, Map<K, List<T>>> groupingBy(Function<? super T, ? extends K> classifier) {
+        return groupingBy(classifier, Collectors.toList());
+    }
+
+    public static <T, K, A, D> Collector<T, ?, Map<K, D>> groupingBy(Function<? super T, ? extends K> classifier,
+                                                                     Collector<? super T, A, D> downstream) {
+        int shards = Integer.highestOneBit(Math.max(1, ForkJoinPool.getCommonPoolParallelism()) * 4 - 1) << 1;
+        return groupingBy(classifier, downstream, shards, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param shards    number of shards, rounded up to a power of two. More shards means less contention and more
+     *                  memory for the buffers of every thread
+     * @param batchSize number of elements a thread buffers for a shard before the shard is locked
+     */
+    public static <T, K, A, D> Collector<T, ?, Map<K, D>> groupingBy(Function<? super T, ? extends K> classifier,
+                                                                     Collector<? super T, A, D> downstream,
+                                                                     int shards,
+                                                                     int batchSize) {
+        if (shards <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("shards and batchSize must be positive");
+        }
+        int shardCount = shards == 1 ? 1 : Integer.highestOneBit(shards - 1) << 1;
+
+        return Collector.of(
+                () -> new StripedGroups<T, K, A>(classifier, downstream, shardCount, batchSize),
+                StripedGroups::accumulate,
+                StripedGroups::combine,
+                groups -> groups.finish(downstream),
+                Collector.Characteristics.CONCURRENT,
+                Collector.Characteristics.UNORDERED
+        );
+    }
+
+    /**
+     * The container of the collector, shared by all worker threads.
+     */
+    private static final class StripedGroups<T, K, A> {
+
+        private final Function<? super T, ? extends K> classifier;
+        private final Supplier<A> downstreamSupplier;
+        private final BiConsumer<A, ? super T> downstreamAccumulator;
+        private final BinaryOperator<A> downstreamCombiner;
+        private final int batchSize;
+        private final int mask;
+        private final Shard<K, A>[] shards;
+        // every buffer ever created, so the finisher can flush what is left in them
+        private final Queue<LocalBuffer> buffers = new ConcurrentLinkedQueue<>();
+        // the buffer has no reference back to this container, so the entry left in the ThreadLocalMap of a worker
+        // thread does not keep the ThreadLocal key, the shards or the result alive after the collect
+        private final ThreadLocal<LocalBuffer> localBuffer = ThreadLocal.withInitial(this::newBuffer);
+
+        StripedGroups(Function<? super T, ? extends K> classifier,
+                      Collector<? super T, A, ?> downstream,
+                      int shardCount,
+                      int batchSize) {
+            this.classifier = classifier;
+            this.downstreamSupplier = downstream.supplier();
+            this.downstreamAccumulator = downstream.accumulator();
+            this.downstreamCombiner = downstream.combiner();
+            this.batchSize = batchSize;
+            this.mask = shardCount - 1;
+            this.shards = newShards(shardCount);
+            for (int i = 0; i < shardCount; i++) {
+                shards[i] = new Shard<>();
+            }
+        }
+
+        void accumulate(T item) {
+            K key = Objects.requireNonNull(classifier.apply(item), "element cannot be mapped to a null key");
+            int shard = shardOf(key);
+            LocalBuffer buffer = localBuffer.get();
+            int size = buffer.add(shard, key, item, batchSize);
+            if (size == batchSize) {
+                flush(buffer, shard, size);
+            }
+        }
+
+        StripedGroups<T, K, A> combine(StripedGroups<T, K, A> other) {
+            // only called when the collector is not used concurrently, for example as a downstream of another
+            // collector. Both side has the same shard count, so a key is in the same shard on both side
+            other.flushAll();
+            for (int i = 0; i < shards.length; i++) {
+                Shard<K, A> target = shards[i];
+                target.lock.lock();
+                try {
+                    other.shards[i].groups.forEach((key, container) -> target.groups.merge(key, container,
+                            downstreamCombiner));
+                } finally {
+                    target.lock.unlock();
+                }
+            }
+            return this;
+        }
+
+        <D> Map<K, D> finish(Collector<? super T, A, D> downstream) {
+            flushAll();
+            // release the buffers, the ones of the other threads are only left as small empty stale entries
+            for (LocalBuffer buffer : buffers) {
+                buffer.release();
+            }
+            buffers.clear();
+            localBuffer.remove();
+
+            boolean identityFinish = downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH);
+            Function<A, D> finisher = downstream.finisher();
+            Map<K, D>[] maps = newMaps(shards.length);
+            for (int i = 0; i < shards.length; i++) {
+                // the container is replaced in place by the finished value, the same trick with Collectors.groupingBy
+                @SuppressWarnings(value = "unchecked")
+                Map<K, Object> groups = (Map<K, Object>) shards[i].groups;
+                if (!identityFinish) {
+                    groups.replaceAll((key, container) -> finish(finisher, container));
+                }
+                @SuppressWarnings(value = "unchecked")
+                Map<K, D> map = (Map<K, D>) groups;
+                maps[i] = map;
+            }
+            return new ShardedMap<>(maps);
+        }
+
+        @SuppressWarnings(value = "unchecked")
+        private static <A, D> D finish(Function<A, D> finisher, Object container) {
+            return finisher.apply((A) container);
+        }
+
+        private void flushAll() {
+            for (LocalBuffer buffer : buffers) {
+                for (int shard = 0; shard < buffer.sizes.length; shard++) {
+                    if (buffer.sizes[shard] > 0) {
+                        flush(buffer, shard, buffer.sizes[shard]);
+                    }
+                }
+            }
+        }
+
+        @SuppressWarnings(value = "unchecked")
+        private void flush(LocalBuffer buffer, int shard, int size) {
+            Object[] pendingKeys = buffer.keys[shard];
+            Object[] pendingItems = buffer.items[shard];
+            Shard<K, A> target = shards[shard];
+            target.lock.lock();
+            try {
+                for (int i = 0; i < size; i++) {
+                    A container = target.groups.computeIfAbsent((K) pendingKeys[i],
+                            key -> downstreamSupplier.get());
+                    downstreamAccumulator.accept(container, (T) pendingItems[i]);
+                }
+            } finally {
+                target.lock.unlock();
+            }
+            // release the references, the buffer may live as long as the worker thread
+            Arrays.fill(pendingKeys, 0, size, null);
+            Arrays.fill(pendingItems, 0, size, null);
+            buffer.sizes[shard] = 0;
+        }
+
+        private LocalBuffer newBuffer() {
+            LocalBuffer buffer = new LocalBuffer(shards.length);
+            buffers.add(buffer);
+            return buffer;
+        }
+
+        private int shardOf(Object key) {
+            int hash = key.hashCode();
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+
+    }
+
+    /**
+     * Pending elements of one thread, one batch for every shard.
+     */
+    private static final class LocalBuffer {
+
+        private final Object[][] keys;
+        private final Object[][] items;
+        private final int[] sizes;
+
+        LocalBuffer(int shardCount) {
+            this.keys = new Object[shardCount][];
+            this.items = new Object[shardCount][];
+            this.sizes = new int[shardCount];
+        }
+
+        /**
+         * @return the number of pending elements of the shard, the caller flushes the shard when it is full
+         */
+        int add(int shard, Object key, Object item, int batchSize) {
+            if (keys[shard] == null) {
+                keys[shard] = new Object[batchSize];
+                items[shard] = new Object[batchSize];
+            }
+
+            int size = sizes[shard];
+            keys[shard][size] = key;
+            items[shard][size] = item;
+            sizes[shard] = ++size;
+            return size;
+        }
+
+        void release() {
+            Arrays.fill(keys, null);
+            Arrays.fill(items, null);
+        }
+    }
+
+    // a generic array can not be created, the element type is only checked by the compiler
+    @SuppressWarnings(value = "unchecked")
+    private static <K, A> Shard<K, A>[] newShards(int length) {
+        return (Shard<K, A>[]) new Shard<?, ?>[length];
+    }
+
+    @SuppressWarnings(value = "unchecked")
+    private static <K, V> Map<K, V>[] newMaps(int length) {
+        return (Map<K, V>[]) new Map<?, ?>[length];
+    }
+
+    private static final class Shard<K, A> {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<K, A> groups = new HashMap<>();
+    }
+
+    /**
+     * Read-only view over the maps of the shards, the key sets of the shards are disjoint so nothing is merged.
+     */
+    private static final class ShardedMap<K, V> extends AbstractMap<K, V> {
+
+        private final Map<K, V>[] maps;
+        private final int mask;
+        private final int size;
+
+        ShardedMap(Map<K, V>[] maps) {
+            this.maps = maps;
+            this.mask = maps.length - 1;
+            int size = 0;
+            for (Map<K, V> map : maps) {
+                size += map.size();
+            }
+            this.size = size;
+        }
+
+        @Override
+        public V get(Object key) {
+            return key == null ? null : shardOf(key).get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key != null && shardOf(key).containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return Arrays.stream(maps)
+                            .flatMap(map -> map.entrySet().stream())
+                            .map(entry -> (Entry<K, V>) new SimpleImmutableEntry<>(entry))
+                            .iterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        private Map<K, V> shardOf(Object key) {
+            int hash = key.hashCode();
+            return maps[(hash ^ (hash >>> 16)) & mask];
+        }
+    }
+}
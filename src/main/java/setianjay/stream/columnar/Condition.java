@@ -0,0 +1,18 @@
+package setianjay.stream.columnar;
+
+/**
+ * The condition of a filter of a column, compared with a constant.
+ */
+public enum Condition {
+    EQUAL,
+    NOT_EQUAL,
+    LESS_THAN,
+    LESS_OR_EQUAL,
+    GREATER_THAN,
+    GREATER_OR_EQUAL,
+    /**
+     * {@code value % constant == 0}, only for {@code int} and {@code long} columns. A power of two constant (like
+     * the even numbers) is vectorized.
+     */
+    MULTIPLE_OF
+}
@@ -0,0 +1,128 @@
+package setianjay.stream.columnar;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.Objects;
+import java.util.OptionalDouble;
+
+/**
+ * Batch (columnar) execution of a filter, map and aggregate job over a {@code double[]}, the same with
+ * {@code DoubleStream.of(values).filter(...).map(...).sum()} for the filters and maps that compare or combine the value
+ * with a constant. The whole column is processed one vector of values at a time with {@code jdk.incubator.vector}:
+ * the filters make a selection mask and the aggregates only take the selected lanes. Without the vector module
+ * (start the JVM with {@code --add-modules jdk.incubator.vector}) the same job runs one element at a time.
+ *
+ * <pre>{@code
+ * // DoubleStream.of(prices).filter(price -> price > 100).average()
+ * OptionalDouble average = DoubleColumn.of(prices).filter(Condition.GREATER_THAN, 100).average();
+ * }</pre>
+ *
+ * <p>The values are added in a different order than {@code DoubleStream.sum()}, so the sum can differ in the last
+ * bits. {@link Condition#MULTIPLE_OF} is not supported.
+ *
+ * <p>The job runs once, on the first aggregate of the column, and the count, sum, min and max are kept for the other
+ * aggregates. The values must not change after that.
+ */
+public final class DoubleColumn {
+
+    private final double[] values;
+    private final int from;
+    private final int to;
+    private final Step[] steps;
+    private final Kernel kernel;
+    // the result of the first aggregate, immutable so it can be shared by threads without a lock
+    private Summary summary;
+
+    private DoubleColumn(double[] values, int from, int to, Step[] steps, Kernel kernel) {
+        this.values = values;
+        this.from = from;
+        this.to = to;
+        this.steps = steps;
+        this.kernel = kernel;
+    }
+
+    public static DoubleColumn of(double[] values) {
+        return of(values, 0, values.length);
+    }
+
+    public static DoubleColumn of(double[] values, int from, int to) {
+        Objects.checkFromToIndex(from, to, values.length);
+        return new DoubleColumn(values, from, to, new Step[0], Kernels.DEFAULT);
+    }
+
+    /**
+     * @return column with only the values where {@code value <condition> constant}
+     */
+    public DoubleColumn filter(Condition condition, double constant) {
+        Objects.requireNonNull(condition);
+        return new DoubleColumn(values, from, to, Step.append(steps, Step.filter(condition, constant)), kernel);
+    }
+
+    /**
+     * @return column with every value replaced by {@code value <operation> constant}
+     */
+    public DoubleColumn map(Operation operation, double constant) {
+        Objects.requireNonNull(operation);
+        return new DoubleColumn(values, from, to, Step.append(steps, Step.map(operation, constant)), kernel);
+    }
+
+    /**
+     * @return the same column on the scalar kernel, to compare with the vectorized one
+     */
+    public DoubleColumn scalar() {
+        return new DoubleColumn(values, from, to, steps, ScalarKernel.INSTANCE);
+    }
+
+    /**
+     * @return true if the column runs on the vector kernel
+     */
+    public boolean isVectorized() {
+        return kernel != ScalarKernel.INSTANCE;
+    }
+
+    public long count() {
+        return summary().count();
+    }
+
+    public double sum() {
+        return summary().sum();
+    }
+
+    public OptionalDouble min() {
+        Summary summary = summary();
+        return summary.count() == 0 ? OptionalDouble.empty() : OptionalDouble.of(summary.min());
+    }
+
+    public OptionalDouble max() {
+        Summary summary = summary();
+        return summary.count() == 0 ? OptionalDouble.empty() : OptionalDouble.of(summary.max());
+    }
+
+    public OptionalDouble average() {
+        Summary summary = summary();
+        if (summary.count() == 0) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of(summary.sum() / summary.count());
+    }
+
+    /**
+     * @return count, sum, min and max of one pass
+     */
+    public DoubleSummaryStatistics summaryStatistics() {
+        Summary summary = summary();
+        return new DoubleSummaryStatistics(summary.count(), summary.min(), summary.max(), summary.sum());
+    }
+
+    private Summary summary() {
+        Summary summary = this.summary;
+        if (summary == null) {
+            DoubleSummaryStatistics statistics = kernel.aggregate(values, from, to, steps);
+            summary = new Summary(statistics.getCount(), statistics.getSum(), statistics.getMin(), statistics.getMax());
+            this.summary = summary;
+        }
+        return summary;
+    }
+
+    private record Summary(long count, double sum, double min, double max) {
+    }
+}
@@ -0,0 +1,17 @@
+package setianjay.stream.columnar;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LongSummaryStatistics;
+
+/**
+ * Run the steps over {@code [from, to)} of a column and aggregate the values that pass all the filters.
+ */
+interface Kernel {
+
+    IntSummaryStatistics aggregate(int[] values, int from, int to, Step[] steps);
+
+    LongSummaryStatistics aggregate(long[] values, int from, int to, Step[] steps);
+
+    DoubleSummaryStatistics aggregate(double[] values, int from, int to, Step[] steps);
+}
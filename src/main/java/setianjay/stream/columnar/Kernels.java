@@ -0,0 +1,28 @@
+package setianjay.stream.columnar;
+
+/**
+ * Choose the kernel once: the {@link VectorKernel} if the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}, otherwise the {@link ScalarKernel}. The system property
+ * {@code setianjay.stream.columnar.scalar=true} forces the scalar kernel.
+ */
+final class Kernels {
+
+    static final Kernel DEFAULT = load();
+
+    private Kernels() {
+    }
+
+    private static Kernel load() {
+        if (Boolean.getBoolean("setianjay.stream.columnar.scalar")
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return ScalarKernel.INSTANCE;
+        }
+        try {
+            // by name, so this class can be loaded without the vector module
+            return (Kernel) Class.forName("setianjay.stream.columnar.VectorKernel").getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return ScalarKernel.INSTANCE;
+        }
+    }
+}
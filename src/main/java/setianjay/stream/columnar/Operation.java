@@ -0,0 +1,12 @@
+package setianjay.stream.columnar;
+
+/**
+ * The operation of a map of a column, with a constant as the second operand.
+ */
+public enum Operation {
+    ADD,
+    SUBTRACT,
+    MULTIPLY,
+    MIN,
+    MAX
+}
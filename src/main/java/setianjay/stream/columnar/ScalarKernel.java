@@ -0,0 +1,312 @@
+package setianjay.stream.columnar;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LongSummaryStatistics;
+
+/**
+ * One element at a time, used when the vector API is not available and for the steps that can not be vectorized.
+ * The column is run in blocks: a step is applied to the whole block before the next step, so the condition or the
+ * operation of a step is chosen once per block and the loop over the values has no switch. A filter moves the values
+ * that pass to the front of the block without a branch.
+ */
+final class ScalarKernel implements Kernel {
+
+    static final ScalarKernel INSTANCE = new ScalarKernel();
+
+    // small enough to stay in the L1 cache
+    private static final int BLOCK = 1024;
+
+    // the bit of the result of a comparison in the mask of a condition, UNORDERED is a comparison with NaN
+    private static final int UNORDERED = 1;
+    private static final int LESS = 1 << 1;
+    private static final int EQUAL = 1 << 2;
+    private static final int GREATER = 1 << 3;
+
+    private ScalarKernel() {
+    }
+
+    @Override
+    public IntSummaryStatistics aggregate(int[] values, int from, int to, Step[] steps) {
+        int[] block = new int[Math.min(BLOCK, to - from)];
+        long count = 0;
+        long sum = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        while (from < to) {
+            int length = Math.min(BLOCK, to - from);
+            int size = length;
+            // the first step reads the column, the next steps read the block
+            int[] source = values;
+            int offset = from;
+            for (Step step : steps) {
+                if (step.isFilter()) {
+                    size = filter(step, source, offset, size, block);
+                } else {
+                    map(step, source, offset, size, block);
+                }
+                source = block;
+                offset = 0;
+            }
+            count += size;
+            for (int i = offset; i < offset + size; i++) {
+                int value = source[i];
+                sum += value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            from += length;
+        }
+        return count == 0 ? new IntSummaryStatistics() : new IntSummaryStatistics(count, min, max, sum);
+    }
+
+    @Override
+    public LongSummaryStatistics aggregate(long[] values, int from, int to, Step[] steps) {
+        long[] block = new long[Math.min(BLOCK, to - from)];
+        long count = 0;
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        while (from < to) {
+            int length = Math.min(BLOCK, to - from);
+            int size = length;
+            long[] source = values;
+            int offset = from;
+            for (Step step : steps) {
+                if (step.isFilter()) {
+                    size = filter(step, source, offset, size, block);
+                } else {
+                    map(step, source, offset, size, block);
+                }
+                source = block;
+                offset = 0;
+            }
+            count += size;
+            for (int i = offset; i < offset + size; i++) {
+                long value = source[i];
+                sum += value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            from += length;
+        }
+        return count == 0 ? new LongSummaryStatistics() : new LongSummaryStatistics(count, min, max, sum);
+    }
+
+    @Override
+    public DoubleSummaryStatistics aggregate(double[] values, int from, int to, Step[] steps) {
+        double[] block = new double[Math.min(BLOCK, to - from)];
+        // accept() keeps the compensated sum of DoubleStream.summaryStatistics()
+        DoubleSummaryStatistics statistics = new DoubleSummaryStatistics();
+        while (from < to) {
+            int length = Math.min(BLOCK, to - from);
+            int size = length;
+            double[] source = values;
+            int offset = from;
+            for (Step step : steps) {
+                if (step.isFilter()) {
+                    size = filter(step, source, offset, size, block);
+                } else {
+                    map(step, source, offset, size, block);
+                }
+                source = block;
+                offset = 0;
+            }
+            for (int i = offset; i < offset + size; i++) {
+                statistics.accept(source[i]);
+            }
+            from += length;
+        }
+        return statistics;
+    }
+
+    // the int values are compared with the long constant, so a constant out of the int range is not truncated
+    private static int filter(Step step, int[] source, int offset, int size, int[] target) {
+        long constant = step.value();
+        int kept = 0;
+        if (step.isPowerOfTwoMultiple()) {
+            int mask = (int) (constant - 1);
+            for (int i = offset; i < offset + size; i++) {
+                int value = source[i];
+                target[kept] = value;
+                kept += (value & mask) == 0 ? 1 : 0;
+            }
+        } else if (step.condition() == Condition.MULTIPLE_OF && constant == (int) constant) {
+            int divisor = (int) constant;
+            for (int i = offset; i < offset + size; i++) {
+                int value = source[i];
+                target[kept] = value;
+                kept += value % divisor == 0 ? 1 : 0;
+            }
+        } else if (step.condition() == Condition.MULTIPLE_OF) {
+            for (int i = offset; i < offset + size; i++) {
+                int value = source[i];
+                target[kept] = value;
+                kept += value % constant == 0 ? 1 : 0;
+            }
+        } else {
+            int accepted = accepted(step.condition());
+            for (int i = offset; i < offset + size; i++) {
+                int value = source[i];
+                target[kept] = value;
+                kept += accepted >>> compare(value, constant) & 1;
+            }
+        }
+        return kept;
+    }
+
+    private static int filter(Step step, long[] source, int offset, int size, long[] target) {
+        long constant = step.value();
+        int kept = 0;
+        if (step.isPowerOfTwoMultiple()) {
+            long mask = constant - 1;
+            for (int i = offset; i < offset + size; i++) {
+                long value = source[i];
+                target[kept] = value;
+                kept += (value & mask) == 0 ? 1 : 0;
+            }
+        } else if (step.condition() == Condition.MULTIPLE_OF) {
+            for (int i = offset; i < offset + size; i++) {
+                long value = source[i];
+                target[kept] = value;
+                kept += value % constant == 0 ? 1 : 0;
+            }
+        } else {
+            int accepted = accepted(step.condition());
+            for (int i = offset; i < offset + size; i++) {
+                long value = source[i];
+                target[kept] = value;
+                kept += accepted >>> compare(value, constant) & 1;
+            }
+        }
+        return kept;
+    }
+
+    private static int filter(Step step, double[] source, int offset, int size, double[] target) {
+        double constant = step.doubleValue();
+        int accepted = accepted(step.condition());
+        int kept = 0;
+        for (int i = offset; i < offset + size; i++) {
+            double value = source[i];
+            target[kept] = value;
+            kept += accepted >>> compare(value, constant) & 1;
+        }
+        return kept;
+    }
+
+    // int values are computed as int with the constant cast to int, the same result with the int operators
+    private static void map(Step step, int[] source, int offset, int size, int[] target) {
+        int constant = (int) step.value();
+        switch (step.operation()) {
+            case ADD -> {
+                for (int i = 0; i < size; i++) {
+                    target[i] = source[offset + i] + constant;
+                }
+            }
+            case SUBTRACT -> {
+                for (int i = 0; i < size; i++) {
+                    target[i] = source[offset + i] - constant;
+                }
+            }
+            case MULTIPLY -> {
+                for (int i = 0; i < size; i++) {
+                    target[i] = source[offset + i] * constant;
+                }
+            }
+            case MIN -> {
+                for (int i = 0; i < size; i++) {
+                    target[i] = Math.min(source[offset + i], constant);
+                }
+            }
+            case MAX -> {
+                for (int i = 0; i < size; i++) {
+                    target[i] = Math.max(source[offset + i], constant);
+                }
+            }
+        }
+    }
+
+    private static void map(Step step, long[] source, int offset, int size, long[] target) {
+        long constant = step.value();
+        switch (step.operation()) {
+            case ADD -> {
+                for (int i = 0; i < size; i++) {
+                    target[i] = source[offset + i] + constant;
+                }
+            }
+            case SUBTRACT -> {
+                for (int i = 0; i < size; i++) {
+                    target[i] = source[offset + i] - constant;
+                }
+            }
+            case MULTIPLY -> {
+                for (int i = 0; i < size; i++) {
+                    target[i] = source[offset + i] * constant;
+                }
+            }
+            case MIN -> {
+                for (int i = 0; i < size; i++) {
+                    target[i] = Math.min(source[offset + i], constant);
+                }
+            }
+            case MAX -> {
+                for (int i = 0; i < size; i++) {
+                    target[i] = Math.max(source[offset + i], constant);
+                }
+            }
+        }
+    }
+
+    private static void map(Step step, double[] source, int offset, int size, double[] target) {
+        double constant = step.doubleValue();
+        switch (step.operation()) {
+            case ADD -> {
+                for (int i = 0; i < size; i++) {
+                    target[i] = source[offset + i] + constant;
+                }
+            }
+            case SUBTRACT -> {
+                for (int i = 0; i < size; i++) {
+                    target[i] = source[offset + i] - constant;
+                }
+            }
+            case MULTIPLY -> {
+                for (int i = 0; i < size; i++) {
+                    target[i] = source[offset + i] * constant;
+                }
+            }
+            case MIN -> {
+                for (int i = 0; i < size; i++) {
+                    target[i] = Math.min(source[offset + i], constant);
+                }
+            }
+            case MAX -> {
+                for (int i = 0; i < size; i++) {
+                    target[i] = Math.max(source[offset + i], constant);
+                }
+            }
+        }
+    }
+
+    // the mask of the comparison results that pass the condition, a comparison with NaN only passes NOT_EQUAL
+    private static int accepted(Condition condition) {
+        return switch (condition) {
+            case EQUAL -> EQUAL;
+            case NOT_EQUAL -> UNORDERED | LESS | GREATER;
+            case LESS_THAN -> LESS;
+            case LESS_OR_EQUAL -> LESS | EQUAL;
+            case GREATER_THAN -> GREATER;
+            case GREATER_OR_EQUAL -> GREATER | EQUAL;
+            case MULTIPLE_OF -> throw new IllegalArgumentException("MULTIPLE_OF is not a comparison");
+        };
+    }
+
+    // the bit number of the comparison result in the mask of accepted()
+    private static int compare(long value, long constant) {
+        return (value < constant ? 1 : 0) + (value == constant ? 2 : 0) + (value > constant ? 3 : 0);
+    }
+
+    private static int compare(double value, double constant) {
+        return (value < constant ? 1 : 0) + (value == constant ? 2 : 0) + (value > constant ? 3 : 0);
+    }
+}
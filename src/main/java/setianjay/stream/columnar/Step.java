@@ -0,0 +1,49 @@
+package setianjay.stream.columnar;
+
+import java.util.Arrays;
+
+/**
+ * A filter (with a condition) or a map (with an operation) of a column, the constant is in {@code value} for the
+ * {@code int} and {@code long} columns and in {@code doubleValue} for the {@code double} columns.
+ */
+record Step(Condition condition, Operation operation, long value, double doubleValue) {
+
+    static Step filter(Condition condition, long value) {
+        if (condition == Condition.MULTIPLE_OF && value == 0) {
+            throw new IllegalArgumentException("multiple of 0");
+        }
+        return new Step(condition, null, value, 0);
+    }
+
+    static Step filter(Condition condition, double value) {
+        if (condition == Condition.MULTIPLE_OF) {
+            throw new IllegalArgumentException("MULTIPLE_OF is not supported for double");
+        }
+        return new Step(condition, null, 0, value);
+    }
+
+    static Step map(Operation operation, long value) {
+        return new Step(null, operation, value, 0);
+    }
+
+    static Step map(Operation operation, double value) {
+        return new Step(null, operation, 0, value);
+    }
+
+    boolean isFilter() {
+        return condition != null;
+    }
+
+    /**
+     * @return true if the filter is a multiple of a power of two, so it can be a bitwise and
+     */
+    boolean isPowerOfTwoMultiple() {
+        return condition == Condition.MULTIPLE_OF && value > 0 && Long.bitCount(value) == 1;
+    }
+
+    static Step[] append(Step[] steps, Step step) {
+        Step[] appended = Arrays.copyOf(steps, steps.length + 1);
+        appended[steps.length] = step;
+        return appended;
+    }
+}
@@ -0,0 +1,215 @@
+package setianjay.stream.columnar;
+
+import jdk.incubator.vector.*;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LongSummaryStatistics;
+
+/**
+ * SIMD with {@code jdk.incubator.vector}: a filter is a compare of all the lanes into a mask, the masks of the
+ * filters are combined with and, and the lanes not in the mask are replaced by the neutral value of the aggregate
+ * (0 for the sum, the largest value for the min), so there is no branch for every element. Masked min and max are
+ * not used, C2 of JDK 21.0.1 crashes on them with AVX-512. The tail of the column (less than one vector) and the
+ * steps that can not be vectorized run on the {@link ScalarKernel}.
+ *
+ * <p>Only loaded by {@link Kernels} when the {@code jdk.incubator.vector} module is in the boot layer.
+ */
+final class VectorKernel implements Kernel {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    // a lane of the 16 bits halves of the int sum can add this many vectors without overflow
+    private static final int INT_SUM_BLOCK = 1 << 15;
+
+    @Override
+    public IntSummaryStatistics aggregate(int[] values, int from, int to, Step[] steps) {
+        if (!vectorizable(steps)) {
+            return ScalarKernel.INSTANCE.aggregate(values, from, to, steps);
+        }
+        int lanes = INTS.length();
+        int upper = from + INTS.loopBound(to - from);
+        IntVector largest = IntVector.broadcast(INTS, Integer.MAX_VALUE);
+        IntVector smallest = IntVector.broadcast(INTS, Integer.MIN_VALUE);
+        IntVector zero = IntVector.zero(INTS);
+        IntVector min = largest;
+        IntVector max = smallest;
+        // the sum is split in the low 16 bits (unsigned) and the high 16 bits (signed) of every value, so the lanes
+        // can add a block of vectors as int and only the block is added as long
+        IntVector low = IntVector.zero(INTS);
+        IntVector high = IntVector.zero(INTS);
+        long count = 0;
+        long sum = 0;
+        int block = 0;
+        for (int i = from; i < upper; i += lanes) {
+            IntVector vector = IntVector.fromArray(INTS, values, i);
+            VectorMask<Integer> mask = INTS.maskAll(true);
+            for (Step step : steps) {
+                if (step.isFilter()) {
+                    mask = mask.and(test(step, vector));
+                } else {
+                    vector = apply(step, vector);
+                }
+            }
+            count += mask.trueCount();
+            min = min.min(largest.blend(vector, mask));
+            max = max.max(smallest.blend(vector, mask));
+            IntVector selected = zero.blend(vector, mask);
+            low = low.add(selected.and(0xFFFF));
+            high = high.add(selected.lanewise(VectorOperators.ASHR, 16));
+            if (++block == INT_SUM_BLOCK) {
+                sum += sum(low, high);
+                low = IntVector.zero(INTS);
+                high = IntVector.zero(INTS);
+                block = 0;
+            }
+        }
+        sum += sum(low, high);
+        IntSummaryStatistics tail = ScalarKernel.INSTANCE.aggregate(values, upper, to, steps);
+        count += tail.getCount();
+        if (count == 0) {
+            return new IntSummaryStatistics();
+        }
+        return new IntSummaryStatistics(count, Math.min(min.reduceLanes(VectorOperators.MIN), tail.getMin()),
+                Math.max(max.reduceLanes(VectorOperators.MAX), tail.getMax()), sum + tail.getSum());
+    }
+
+    private static long sum(IntVector low, IntVector high) {
+        long sum = 0;
+        for (int lane = 0; lane < INTS.length(); lane++) {
+            sum += low.lane(lane) + ((long) high.lane(lane) << 16);
+        }
+        return sum;
+    }
+
+    @Override
+    public LongSummaryStatistics aggregate(long[] values, int from, int to, Step[] steps) {
+        if (!vectorizable(steps)) {
+            return ScalarKernel.INSTANCE.aggregate(values, from, to, steps);
+        }
+        int lanes = LONGS.length();
+        int upper = from + LONGS.loopBound(to - from);
+        LongVector largest = LongVector.broadcast(LONGS, Long.MAX_VALUE);
+        LongVector smallest = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+        LongVector zero = LongVector.zero(LONGS);
+        LongVector min = largest;
+        LongVector max = smallest;
+        LongVector sum = zero;
+        long count = 0;
+        for (int i = from; i < upper; i += lanes) {
+            LongVector vector = LongVector.fromArray(LONGS, values, i);
+            VectorMask<Long> mask = LONGS.maskAll(true);
+            for (Step step : steps) {
+                if (step.isFilter()) {
+                    mask = mask.and(test(step, vector));
+                } else {
+                    vector = apply(step, vector);
+                }
+            }
+            count += mask.trueCount();
+            min = min.min(largest.blend(vector, mask));
+            max = max.max(smallest.blend(vector, mask));
+            sum = sum.add(zero.blend(vector, mask));
+        }
+        LongSummaryStatistics tail = ScalarKernel.INSTANCE.aggregate(values, upper, to, steps);
+        count += tail.getCount();
+        if (count == 0) {
+            return new LongSummaryStatistics();
+        }
+        return new LongSummaryStatistics(count, Math.min(min.reduceLanes(VectorOperators.MIN), tail.getMin()),
+                Math.max(max.reduceLanes(VectorOperators.MAX), tail.getMax()),
+                sum.reduceLanes(VectorOperators.ADD) + tail.getSum());
+    }
+
+    @Override
+    public DoubleSummaryStatistics aggregate(double[] values, int from, int to, Step[] steps) {
+        int lanes = DOUBLES.length();
+        int upper = from + DOUBLES.loopBound(to - from);
+        DoubleVector largest = DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY);
+        DoubleVector smallest = DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY);
+        DoubleVector zero = DoubleVector.zero(DOUBLES);
+        DoubleVector min = largest;
+        DoubleVector max = smallest;
+        DoubleVector sum = zero;
+        long count = 0;
+        for (int i = from; i < upper; i += lanes) {
+            DoubleVector vector = DoubleVector.fromArray(DOUBLES, values, i);
+            VectorMask<Double> mask = DOUBLES.maskAll(true);
+            for (Step step : steps) {
+                if (step.isFilter()) {
+                    mask = mask.and(vector.compare(comparison(step.condition()), step.doubleValue()));
+                } else {
+                    vector = vector.lanewise(operator(step.operation()), step.doubleValue());
+                }
+            }
+            count += mask.trueCount();
+            min = min.min(largest.blend(vector, mask));
+            max = max.max(smallest.blend(vector, mask));
+            sum = sum.add(zero.blend(vector, mask));
+        }
+        DoubleSummaryStatistics tail = ScalarKernel.INSTANCE.aggregate(values, upper, to, steps);
+        count += tail.getCount();
+        if (count == 0) {
+            return new DoubleSummaryStatistics();
+        }
+        return new DoubleSummaryStatistics(count, Math.min(min.reduceLanes(VectorOperators.MIN), tail.getMin()),
+                Math.max(max.reduceLanes(VectorOperators.MAX), tail.getMax()),
+                sum.reduceLanes(VectorOperators.ADD) + tail.getSum());
+    }
+
+    // only the multiple of a power of two is vectorized, there is no SIMD division
+    private static boolean vectorizable(Step[] steps) {
+        for (Step step : steps) {
+            if (step.condition() == Condition.MULTIPLE_OF && !step.isPowerOfTwoMultiple()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static VectorMask<Integer> test(Step step, IntVector vector) {
+        if (step.condition() == Condition.MULTIPLE_OF) {
+            return vector.and((int) step.value() - 1).compare(VectorOperators.EQ, 0);
+        }
+        return vector.compare(comparison(step.condition()), (int) step.value());
+    }
+
+    private static IntVector apply(Step step, IntVector vector) {
+        return vector.lanewise(operator(step.operation()), (int) step.value());
+    }
+
+    private static VectorMask<Long> test(Step step, LongVector vector) {
+        if (step.condition() == Condition.MULTIPLE_OF) {
+            return vector.and(step.value() - 1).compare(VectorOperators.EQ, 0);
+        }
+        return vector.compare(comparison(step.condition()), step.value());
+    }
+
+    private static LongVector apply(Step step, LongVector vector) {
+        return vector.lanewise(operator(step.operation()), step.value());
+    }
+
+    private static VectorOperators.Comparison comparison(Condition condition) {
+        return switch (condition) {
+            case EQUAL -> VectorOperators.EQ;
+            case NOT_EQUAL -> VectorOperators.NE;
+            case LESS_THAN -> VectorOperators.LT;
+            case LESS_OR_EQUAL -> VectorOperators.LE;
+            case GREATER_THAN -> VectorOperators.GT;
+            case GREATER_OR_EQUAL -> VectorOperators.GE;
+            case MULTIPLE_OF -> throw new IllegalArgumentException("MULTIPLE_OF is not a comparison");
+        };
+    }
+
+    private static VectorOperators.Binary operator(Operation operation) {
+        return switch (operation) {
+            case ADD -> VectorOperators.ADD;
+            case SUBTRACT -> VectorOperators.SUB;
+            case MULTIPLY -> VectorOperators.MUL;
+            case MIN -> VectorOperators.MIN;
+            case MAX -> VectorOperators.MAX;
+        };
+    }
+}
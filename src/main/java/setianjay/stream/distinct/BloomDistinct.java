@@ -0,0 +1,88 @@
+package setianjay.stream.distinct;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.ToLongFunction;
+
+/**
+ * Approximate distinct backed by a Bloom filter, the memory is fixed by the expected number of elements and the
+ * false positive rate, not by the number of elements seen. A false positive drops an element that is not seen
+ * before, a duplicate is never accepted (except when two threads insert the same element at the same time).
+ *
+ * <p>The bits are set with an atomic OR, so the filter can be used by a parallel stream.
+ *
+ * @param <T> type of the element
+ */
+public final class BloomDistinct<T> implements DistinctFilter<T> {
+
+    private static final VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final ToLongFunction<? super T> hasher;
+
+    BloomDistinct(long expectedElements, double falsePositiveRate, ToLongFunction<? super T> hasher) {
+        if (expectedElements <= 0) {
+            throw new IllegalArgumentException("expectedElements must be positive: " + expectedElements);
+        }
+        if (!(falsePositiveRate > 0.0 && falsePositiveRate < 1.0)) {
+            throw new IllegalArgumentException("falsePositiveRate must be in (0, 1): " + falsePositiveRate);
+        }
+
+        // the optimal size m = -n ln(p) / ln(2)^2 and the number of hash k = m / n ln(2)
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expectedElements * Math.log(falsePositiveRate) / (ln2 * ln2));
+        long words = Math.max(1, (optimalBits + 63) >>> 6);
+        if (words > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("the filter is too big for expectedElements " + expectedElements);
+        }
+        this.bits = new long[(int) words];
+        this.bitCount = words << 6;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expectedElements * ln2));
+        this.hasher = hasher;
+    }
+
+    @Override
+    public boolean test(T element) {
+        long hash = hasher.applyAsLong(element);
+        // Kirsch and Mitzenmacher, the k hashes are derived from the two halves of one 64 bit hash
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        boolean added = false;
+        for (int i = 1; i <= hashCount; i++) {
+            long combined = hash1 + (long) i * hash2;
+            long index = (combined & Long.MAX_VALUE) % bitCount;
+            long mask = 1L << index;
+            long previous = (long) BITS.getAndBitwiseOr(bits, (int) (index >>> 6), mask);
+            added |= (previous & mask) == 0;
+        }
+        return added;
+    }
+
+    /**
+     * @return number of hash function for every element
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    @Override
+    public long memoryFootprint() {
+        return (long) bits.length * Long.BYTES;
+    }
+
+    /**
+     * 64 bit hash of the {@code hashCode()}, spread with the finalizer of MurmurHash3. The Bloom filter can only be as
+     * good as the hash, so a 32 bit {@code hashCode()} adds about {@code n / 2^32} to the false positive rate.
+     */
+    static long mix(Object element) {
+        long hash = element.hashCode() * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,72 @@
+package setianjay.stream.distinct;
+
+import setianjay.stream.spill.Serializer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Memory bounded replacements of {@code Stream.distinct()}, which keeps every element it has seen in a
+ * {@code HashSet}:
+ *
+ * <ul>
+ *     <li>{@link #exact} keeps a bounded number of elements in memory and spills the rest to temporary files</li>
+ *     <li>{@link #approximate} uses a Bloom filter of a fixed size, with a configurable false positive rate</li>
+ *     <li>{@link #window} drops an element that is seen again in a time window, for event streams</li>
+ * </ul>
+ *
+ * <pre>{@code
+ * long count = Distinct.exact(1_000_000, Serializer.strings()).apply(names).count();
+ * long count = names.filter(Distinct.approximate(100_000_000, 0.001)).count();
+ * }</pre>
+ */
+public final class Distinct {
+
+    public static final int DEFAULT_PARTITIONS = 16;
+
+    private Distinct() {
+    }
+
+    public static <T> SpillingDistinct<T> exact(int maxInMemory, Serializer<T> serializer) {
+        return exact(maxInMemory, serializer, DEFAULT_PARTITIONS, null);
+    }
+
+    /**
+     * @param maxInMemory maximum number of elements in memory, the rest is spilled
+     * @param partitions  number of files the spilled elements are partitioned into
+     * @param directory   directory of the spill files, or null for the default temporary directory
+     */
+    public static <T> SpillingDistinct<T> exact(int maxInMemory, Serializer<T> serializer, int partitions,
+                                                Path directory) {
+        return new SpillingDistinct<>(maxInMemory, partitions, serializer, directory);
+    }
+
+    public static <T> BloomDistinct<T> approximate(long expectedElements, double falsePositiveRate) {
+        return approximate(expectedElements, falsePositiveRate, BloomDistinct::mix);
+    }
+
+    /**
+     * @param hasher 64 bit hash of the element, better than the default when the {@code hashCode()} collides a lot
+     */
+    public static <T> BloomDistinct<T> approximate(long expectedElements, double falsePositiveRate,
+                                                   ToLongFunction<? super T> hasher) {
+        return new BloomDistinct<>(expectedElements, falsePositiveRate, hasher);
+    }
+
+    /**
+     * @param capacity maximum number of the remembered elements, the least recently seen is forgotten first
+     * @param window   an element seen again within this window is dropped
+     */
+    public static <T> WindowedDistinct<T> window(int capacity, Duration window) {
+        return window(capacity, window, System::nanoTime);
+    }
+
+    /**
+     * @param clock time in nanoseconds, for example the event time of the element that is tested
+     */
+    public static <T> WindowedDistinct<T> window(int capacity, Duration window, LongSupplier clock) {
+        return new WindowedDistinct<>(capacity, window.toNanos(), clock);
+    }
+}
@@ -0,0 +1,23 @@
+package setianjay.stream.distinct;
+
+import java.util.function.Predicate;
+
+/**
+ * Stateful predicate that accepts an element only the first time it is seen, to be used with
+ * {@code stream.filter(...)} in place of {@code stream.distinct()}.
+ *
+ * @param <T> type of the element
+ */
+public interface DistinctFilter<T> extends Predicate<T> {
+
+    /**
+     * @return {@code true} if the element is not seen before
+     */
+    @Override
+    boolean test(T element);
+
+    /**
+     * @return estimated heap size in bytes of the filter, without the size of the elements it references
+     */
+    long memoryFootprint();
+}
@@ -0,0 +1,195 @@
+package setianjay.stream.distinct;
+
+import setianjay.stream.spill.Serializer;
+import setianjay.stream.spill.SpillFile;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Exact distinct with a bounded number of elements in memory. The first {@code maxInMemory} distinct elements are
+ * kept in a {@link HashSet} and passed downstream right away, like {@code Stream.distinct()}. When the set is full
+ * the element that is not in the set is spilled to one of the partition files by its hash, so every occurrence of an
+ * element goes to the same partition. After the source is consumed every partition is deduplicated on its own with
+ * the same algorithm, a partition that is still too big is partitioned again with another hash.
+ *
+ * <p>The element after the set is full is passed downstream in the order of the partitions, not in encounter order.
+ *
+ * @param <T> type of the element
+ */
+public final class SpillingDistinct<T> {
+
+    // HashMap.Node: header 12 + hash 4 + key/value/next 3 x 4, and the table slot 4, with compressed oops
+    private static final long ENTRY_FOOTPRINT = 12 + 4 + 3 * 4 + 4;
+    // after this depth the hash codes are most likely equal, partitioning again does not help
+    private static final int MAX_DEPTH = 8;
+
+    private final int maxInMemory;
+    private final int partitions;
+    private final Serializer<T> serializer;
+    private final Path directory;
+    private final Set<T> seen = new HashSet<>();
+    private final Deque<Partition<T>> pending = new ArrayDeque<>();
+    private long peakInMemory;
+    private long spilledBytes;
+    private long spilledElements;
+
+    SpillingDistinct(int maxInMemory, int partitions, Serializer<T> serializer, Path directory) {
+        if (maxInMemory <= 0 || partitions <= 1) {
+            throw new IllegalArgumentException("maxInMemory must be positive and partitions must be more than 1");
+        }
+        this.maxInMemory = maxInMemory;
+        this.partitions = partitions;
+        this.serializer = serializer;
+        this.directory = directory;
+    }
+
+    /**
+     * The distinct stream of the source, closing the stream deletes the spill files that are not read yet.
+     * The instance can only be applied once.
+     */
+    public Stream<T> apply(Stream<T> source) {
+        DistinctSpliterator spliterator = new DistinctSpliterator(source.spliterator());
+        return StreamSupport.stream(spliterator, false)
+                .onClose(source::close)
+                .onClose(spliterator::close);
+    }
+
+    /**
+     * @return estimated heap size in bytes of the in memory set at its peak, without the size of the elements. The
+     * open partitions use a direct write buffer of 64 KiB each outside the heap
+     */
+    public long memoryFootprint() {
+        return peakInMemory * ENTRY_FOOTPRINT;
+    }
+
+    /**
+     * @return total bytes written to the spill files, an element spilled again in a deeper partition is counted again
+     */
+    public long spilledBytes() {
+        return spilledBytes;
+    }
+
+    public long spilledElements() {
+        return spilledElements;
+    }
+
+    private record Partition<T>(SpillFile<T> file, int depth) {
+    }
+
+    private final class DistinctSpliterator implements Spliterator<T> {
+
+        private final int nonNull;
+        private Iterator<T> current;
+        private int depth;
+        private SpillFile<T> currentFile;
+        private List<SpillFile<T>> children;
+
+        DistinctSpliterator(Spliterator<T> source) {
+            this.nonNull = source.characteristics() & NONNULL;
+            this.current = Spliterators.iterator(source);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (true) {
+                while (current.hasNext()) {
+                    T element = current.next();
+                    if (seen.size() < maxInMemory || depth >= MAX_DEPTH) {
+                        if (seen.add(element)) {
+                            peakInMemory = Math.max(peakInMemory, seen.size());
+                            action.accept(element);
+                            return true;
+                        }
+                    } else if (!seen.contains(element)) {
+                        spill(element);
+                    }
+                }
+
+                if (!nextPartition()) {
+                    return false;
+                }
+            }
+        }
+
+        private void spill(T element) {
+            if (children == null) {
+                children = new ArrayList<>(partitions);
+                for (int i = 0; i < partitions; i++) {
+                    children.add(SpillFile.create(directory, serializer));
+                }
+            }
+            // the hash is mixed again with the depth and the child is taken from its high bits, so a partition is
+            // split differently from its parent. The low bits of a multiply do not depend on the higher bits, with a
+            // power of two partitions every element of a partition would go to the same child
+            long hash = (BloomDistinct.mix(element) ^ (depth * 0x9E3779B97F4A7C15L)) * 0xC2B2AE3D27D4EB4FL;
+            hash = (hash ^ (hash >>> 29)) * 0xBF58476D1CE4E5B9L;
+            children.get((int) (((hash >>> 32) * partitions) >>> 32)).append(element);
+            spilledElements++;
+        }
+
+        // the current source is consumed, continue with the next partition that is not read yet
+        private boolean nextPartition() {
+            if (children != null) {
+                for (SpillFile<T> child : children) {
+                    if (child.count() == 0) {
+                        child.close();
+                    } else {
+                        child.flush();
+                        spilledBytes += child.size();
+                        pending.push(new Partition<>(child, depth + 1));
+                    }
+                }
+                children = null;
+            }
+            if (currentFile != null) {
+                currentFile.close();
+                currentFile = null;
+            }
+            if (pending.isEmpty()) {
+                return false;
+            }
+
+            // the elements of a partition are never in the set of the parent, so the set starts empty
+            Partition<T> partition = pending.pop();
+            seen.clear();
+            currentFile = partition.file();
+            current = currentFile.iterator();
+            depth = partition.depth();
+            return true;
+        }
+
+        // delete the spill files that are not read yet, when the stream is closed before it is consumed
+        void close() {
+            if (children != null) {
+                children.forEach(SpillFile::close);
+                children = null;
+            }
+            if (currentFile != null) {
+                currentFile.close();
+                currentFile = null;
+            }
+            while (!pending.isEmpty()) {
+                pending.pop().file().close();
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return DISTINCT | nonNull;
+        }
+    }
+}
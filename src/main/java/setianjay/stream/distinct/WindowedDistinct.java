@@ -0,0 +1,64 @@
+package setianjay.stream.distinct;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Near duplicate suppression for event streams, an element is dropped if the same element is admitted in the last
+ * {@code window} nanoseconds. A dropped duplicate does not extend the window, so an element that repeats more often
+ * than the window is still admitted once every window. Only the last {@code capacity} elements are remembered (least
+ * recently seen is evicted first), so the memory is bounded also when the window is long.
+ *
+ * <p>The filter is synchronized, it can be used by a parallel stream but the threads contend on one lock.
+ *
+ * @param <T> type of the element
+ */
+public final class WindowedDistinct<T> implements DistinctFilter<T> {
+
+    // LinkedHashMap.Entry: header 16 + hash 4 + key/value/next/before/after 5 x 4, the boxed Long value 16 and the
+    // table slot 4, with compressed oops
+    private static final long ENTRY_FOOTPRINT = 16 + 4 + 5 * 4 + 16 + 4;
+
+    private final long windowNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<T, Long> lastSeen;
+
+    WindowedDistinct(int capacity, long windowNanos, LongSupplier clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        if (windowNanos <= 0) {
+            throw new IllegalArgumentException("window must be positive: " + windowNanos);
+        }
+        this.windowNanos = windowNanos;
+        this.clock = clock;
+        this.lastSeen = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<T, Long> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @Override
+    public synchronized boolean test(T element) {
+        long now = clock.getAsLong();
+        // the get also moves the element to the most recently seen, so a frequent duplicate is not evicted
+        Long admitted = lastSeen.get(element);
+        if (admitted != null && now - admitted <= windowNanos) {
+            return false;
+        }
+        lastSeen.put(element, now);
+        return true;
+    }
+
+    public synchronized int size() {
+        return lastSeen.size();
+    }
+
+    @Override
+    public synchronized long memoryFootprint() {
+        return lastSeen.size() * ENTRY_FOOTPRINT;
+    }
+}
@@ -0,0 +1,203 @@
+package setianjay.stream.execution;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Run blocking work for every element of a stream on virtual threads. A blocking call in {@code parallel().forEach}
+ * blocks a fork join worker, so the throughput is bounded by the parallelism of the pool. A virtual thread releases
+ * its carrier thread while it is blocked, so only the concurrency limit bounds the throughput.
+ *
+ * <pre>{@code
+ * try (Stream<Response> responses = BlockingStreams.mapConcurrent(requests, 64, client::send)) {
+ *     responses.filter(Response::isOk).findFirst();
+ * }
+ * }</pre>
+ */
+public final class BlockingStreams {
+
+    private BlockingStreams() {
+    }
+
+    /**
+     * Run the action for every element, at most {@code maxConcurrency} at the same time, and wait for all of them. The
+     * elements are pulled from the stream by the calling thread. After an action fails no more element is started, and
+     * the first exception is thrown once the running actions are done.
+     */
+    public static <T> void forEach(Stream<T> stream, int maxConcurrency, Consumer<? super T> action) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+
+        Semaphore permits = new Semaphore(maxConcurrency);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Iterator<T> iterator = stream.iterator();
+            while (failure.get() == null && iterator.hasNext()) {
+                permits.acquire();
+                T element = iterator.next();
+                executor.execute(() -> {
+                    try {
+                        action.accept(element);
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        }
+
+        Throwable e = failure.get();
+        if (e instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (e instanceof Error error) {
+            throw error;
+        }
+        if (e != null) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Map every element on a virtual thread, at most {@code maxConcurrency} elements are in flight and the results are
+     * in the encounter order of the source. An element is only started when the stream is pulled, so a short
+     * circuit downstream ({@code limit}, {@code findFirst}, ...) stops starting new elements.
+     *
+     * <p>When a mapping fails, the elements in flight are cancelled (interrupted) and the exception is thrown from
+     * the terminal operation. Close the returned stream to cancel the elements in flight after a short circuit.
+     */
+    public static <T, R> Stream<R> mapConcurrent(Stream<T> source, int maxConcurrency,
+                                                 Function<? super T, ? extends R> mapper) {
+        return mapConcurrent(source, maxConcurrency, mapper, true);
+    }
+
+    /**
+     * The same with {@link #mapConcurrent(Stream, int, Function)}, but a result is passed downstream as soon as it is
+     * completed, so a slow element does not hold back the results after it.
+     */
+    public static <T, R> Stream<R> mapConcurrentUnordered(Stream<T> source, int maxConcurrency,
+                                                          Function<? super T, ? extends R> mapper) {
+        return mapConcurrent(source, maxConcurrency, mapper, false);
+    }
+
+    private static <T, R> Stream<R> mapConcurrent(Stream<T> source, int maxConcurrency,
+                                                  Function<? super T, ? extends R> mapper, boolean ordered) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        Objects.requireNonNull(mapper);
+
+        ConcurrentSpliterator<T, R> spliterator = new ConcurrentSpliterator<>(source.spliterator(), maxConcurrency,
+                mapper, ordered);
+        return StreamSupport.stream(spliterator, false)
+                .onClose(spliterator::cancel)
+                .onClose(source::close);
+    }
+
+    private static final class ConcurrentSpliterator<T, R> implements Spliterator<R> {
+
+        private final Spliterator<T> source;
+        private final int maxConcurrency;
+        private final Function<? super T, ? extends R> mapper;
+        private final boolean ordered;
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        // the elements in flight in the order they are started
+        private final Deque<Future<R>> inFlight = new ArrayDeque<>();
+        // only for unordered, the elements in the order they are completed
+        private final BlockingQueue<Future<R>> completed = new LinkedBlockingQueue<>();
+        private boolean sourceDone;
+
+        ConcurrentSpliterator(Spliterator<T> source, int maxConcurrency, Function<? super T, ? extends R> mapper,
+                              boolean ordered) {
+            this.source = source;
+            this.maxConcurrency = maxConcurrency;
+            this.mapper = mapper;
+            this.ordered = ordered;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            while (!sourceDone && inFlight.size() < maxConcurrency) {
+                sourceDone = !source.tryAdvance(this::start);
+            }
+            if (inFlight.isEmpty()) {
+                executor.shutdown();
+                return false;
+            }
+
+            Future<R> next;
+            try {
+                if (ordered) {
+                    next = inFlight.poll();
+                } else {
+                    next = completed.take();
+                    inFlight.remove(next);
+                }
+                action.accept(next.get());
+                return true;
+            } catch (InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                throw new CancellationException("interrupted while waiting for the mapping");
+            } catch (ExecutionException e) {
+                cancel();
+                throw rethrow(e.getCause());
+            }
+        }
+
+        private void start(T element) {
+            FutureTask<R> task = new FutureTask<>(() -> mapper.apply(element)) {
+                @Override
+                protected void done() {
+                    if (!ordered) {
+                        completed.add(this);
+                    }
+                }
+            };
+            inFlight.add(task);
+            executor.execute(task);
+        }
+
+        void cancel() {
+            inFlight.forEach(future -> future.cancel(true));
+            inFlight.clear();
+            executor.shutdownNow();
+        }
+
+        private static RuntimeException rethrow(Throwable cause) {
+            if (cause instanceof RuntimeException runtimeException) {
+                return runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            return new CompletionException(cause);
+        }
+
+        @Override
+        public Spliterator<R> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            int characteristics = source.characteristics() & (SIZED | ORDERED);
+            return ordered ? characteristics : characteristics & ~ORDERED;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package setianjay.stream.execution;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Run a stream pipeline on its own {@link ForkJoinPool} instead of {@code ForkJoinPool.commonPool()}. A parallel
+ * stream runs its tasks in the pool of the thread that calls the terminal operation, so a pipeline started from a
+ * task of this pool only uses the threads of this pool and a slow pipeline can not starve the other pipelines.
+ *
+ * <pre>{@code
+ * try (StreamExecutor executor = StreamExecutor.create("report", 4)) {
+ *     long count = executor.execute(() -> numbers.parallel().filter(number -> number % 2 == 0).count());
+ * }
+ * }</pre>
+ */
+public final class StreamExecutor implements AutoCloseable {
+
+    private final String name;
+    private final ForkJoinPool pool;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+
+    private StreamExecutor(String name, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.name = name;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(name + "-worker-" + threadNumber.incrementAndGet());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * @param name        prefix of the name of the worker threads, for example {@code report-worker-1}
+     * @param parallelism maximum number of worker threads
+     */
+    public static StreamExecutor create(String name, int parallelism) {
+        return new StreamExecutor(name, parallelism);
+    }
+
+    /**
+     * Run the pipeline in this pool and wait for its result. An exception of the pipeline is thrown to the caller.
+     */
+    public <R> R execute(Supplier<R> pipeline) {
+        submitted.increment();
+        ForkJoinTask<R> task = pool.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                return pipeline.get();
+            } finally {
+                busyNanos.add(System.nanoTime() - start);
+            }
+        });
+
+        try {
+            R result = task.join();
+            completed.increment();
+            return result;
+        } catch (RuntimeException | Error e) {
+            failed.increment();
+            throw e;
+        }
+    }
+
+    public void run(Runnable pipeline) {
+        execute(() -> {
+            pipeline.run();
+            return null;
+        });
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    public Metrics metrics() {
+        return new Metrics(
+                name,
+                pool.getParallelism(),
+                pool.getPoolSize(),
+                pool.getActiveThreadCount(),
+                pool.getQueuedTaskCount(),
+                pool.getStealCount(),
+                submitted.sum(),
+                completed.sum(),
+                failed.sum(),
+                busyNanos.sum()
+        );
+    }
+
+    /**
+     * Shutdown the pool and wait for the running pipelines.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                // the pipelines are still running
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Snapshot of the metrics of a {@link StreamExecutor}.
+     *
+     * @param poolSize      number of worker threads that are started
+     * @param activeThreads estimated number of threads that are running or stealing a task
+     * @param queuedTasks   estimated number of tasks in the queues of the worker threads
+     * @param stealCount    estimated number of tasks stolen from another worker thread
+     * @param submitted     number of pipelines submitted with {@link #execute(Supplier)}
+     * @param completed     number of pipelines that are completed successfully
+     * @param failed        number of pipelines that are completed with an exception
+     * @param busyNanos     total time of the completed pipelines, from the start in the pool to the result
+     */
+    public record Metrics(String name,
+                          int parallelism,
+                          int poolSize,
+                          int activeThreads,
+                          long queuedTasks,
+                          long stealCount,
+                          long submitted,
+                          long completed,
+                          long failed,
+                          long busyNanos) {
+    }
+}
@@ -0,0 +1,197 @@
+package setianjay.stream.instrument;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.BaseStream;
+
+/**
+ * Opt-in instrumentation of a stream pipeline, a replacement of {@code peek(System.out::println)}. Wrap the
+ * functions of the stages to count the elements into and out of every stage, the time spent in the stage and the
+ * threads that run it.
+ *
+ * <pre>{@code
+ * PipelineProfiler profiler = PipelineProfiler.create("orders");
+ * long count = profiler.onClose(orders.parallelStream())
+ *         .filter(profiler.filter("paid", Order::isPaid))
+ *         .map(profiler.map("amount", Order::amount))
+ *         .count();
+ * PipelineSnapshot snapshot = profiler.commit();
+ * }</pre>
+ *
+ * <p>Only one element of every {@code sampleInterval} elements of a thread is timed, because reading the clocks
+ * (the cpu time of a thread is about a microsecond) costs much more than a cheap stage, the times of the snapshot are
+ * scaled to all the elements. A {@link #disabled() disabled} profiler returns the functions as they are, so the
+ * pipeline runs without any cost.
+ * The functions created with the same stage name share the same counters.
+ */
+public final class PipelineProfiler {
+
+    public static final int DEFAULT_SAMPLE_INTERVAL = 1024;
+
+    private static final PipelineProfiler DISABLED = new PipelineProfiler("disabled", false, 1);
+
+    private final String name;
+    private final boolean enabled;
+    private final int sampleInterval;
+    // guarded by this, in the order the stages are created
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+
+    private PipelineProfiler(String name, boolean enabled, int sampleInterval) {
+        this.name = name;
+        this.enabled = enabled;
+        this.sampleInterval = sampleInterval;
+    }
+
+    public static PipelineProfiler create(String name) {
+        return create(name, DEFAULT_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * @param sampleInterval time one element of every {@code sampleInterval}, a power of two, 1 to time all of them
+     */
+    public static PipelineProfiler create(String name, int sampleInterval) {
+        if (sampleInterval <= 0 || Integer.bitCount(sampleInterval) != 1) {
+            throw new IllegalArgumentException("sampleInterval must be a power of two: " + sampleInterval);
+        }
+        return new PipelineProfiler(name, true, sampleInterval);
+    }
+
+    /**
+     * @return profiler that does not instrument anything
+     */
+    public static PipelineProfiler disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * @return {@link #create(String)} if enabled, otherwise {@link #disabled()}, for example from a configuration
+     */
+    public static PipelineProfiler of(String name, boolean enabled) {
+        return enabled ? create(name) : disabled();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public <T> Predicate<T> filter(String stage, Predicate<T> predicate) {
+        if (!enabled) {
+            return predicate;
+        }
+        Stage counters = stage(stage);
+        return element -> {
+            Stage.ThreadCounter counter = counters.counter();
+            boolean matched;
+            if (counters.enter(counter)) {
+                long startCpu = Stage.cpuTime();
+                long start = System.nanoTime();
+                matched = predicate.test(element);
+                counters.timed(System.nanoTime() - start, startCpu);
+            } else {
+                matched = predicate.test(element);
+            }
+            if (matched) {
+                counter.exit();
+            }
+            return matched;
+        };
+    }
+
+    public <T, R> Function<T, R> map(String stage, Function<T, R> mapper) {
+        if (!enabled) {
+            return mapper;
+        }
+        Stage counters = stage(stage);
+        return element -> {
+            Stage.ThreadCounter counter = counters.counter();
+            R result;
+            if (counters.enter(counter)) {
+                long startCpu = Stage.cpuTime();
+                long start = System.nanoTime();
+                result = mapper.apply(element);
+                counters.timed(System.nanoTime() - start, startCpu);
+            } else {
+                result = mapper.apply(element);
+            }
+            counter.exit();
+            return result;
+        };
+    }
+
+    /**
+     * @return consumer for {@code peek} that only counts the elements that pass, a checkpoint of the pipeline
+     */
+    public <T> Consumer<T> count(String stage) {
+        if (!enabled) {
+            return element -> {
+            };
+        }
+        Stage counters = stage(stage);
+        return element -> {
+            Stage.ThreadCounter counter = counters.counter();
+            counter.enter();
+            counter.exit();
+        };
+    }
+
+    /**
+     * Commit the snapshot as JFR events when the stream is closed.
+     */
+    public <S extends BaseStream<?, S>> S onClose(S stream) {
+        return enabled ? stream.onClose(this::commit) : stream;
+    }
+
+    public PipelineSnapshot snapshot() {
+        List<StageSnapshot> snapshots = new ArrayList<>();
+        for (Stage stage : stages()) {
+            snapshots.add(stage.snapshot());
+        }
+        return new PipelineSnapshot(name, snapshots);
+    }
+
+    /**
+     * Take a snapshot and commit it as one {@code setianjay.stream.Stage} JFR event for every stage, if the event is
+     * enabled in the recording.
+     */
+    public PipelineSnapshot commit() {
+        PipelineSnapshot snapshot = snapshot();
+        for (StageSnapshot stage : snapshot.stages()) {
+            StageEvent event = new StageEvent();
+            if (event.isEnabled()) {
+                event.pipeline = name;
+                event.stage = stage.name();
+                event.in = stage.in();
+                event.out = stage.out();
+                event.wallTime = stage.wallNanos();
+                event.cpuTime = stage.cpuNanos();
+                event.threads = stage.threads().size();
+                event.commit();
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Reset the counters of all the stages, to run the pipeline again with the same profiler.
+     */
+    public void reset() {
+        stages().forEach(Stage::reset);
+    }
+
+    private synchronized Stage stage(String name) {
+        return stages.computeIfAbsent(name, stage -> new Stage(stage, sampleInterval));
+    }
+
+    private synchronized List<Stage> stages() {
+        return List.copyOf(stages.values());
+    }
+}
@@ -0,0 +1,24 @@
+package setianjay.stream.instrument;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The counters of all the stages of a pipeline, in the order the stages are created.
+ */
+public record PipelineSnapshot(String pipeline, List<StageSnapshot> stages) {
+
+    public PipelineSnapshot {
+        stages = List.copyOf(stages);
+    }
+
+    /**
+     * @throws NoSuchElementException if there is no stage with the name
+     */
+    public StageSnapshot stage(String name) {
+        return stages.stream()
+                .filter(stage -> stage.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new NoSuchElementException("no stage " + name + " in " + pipeline));
+    }
+}
@@ -0,0 +1,161 @@
+package setianjay.stream.instrument;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters of a stage, striped by thread like a {@link LongAdder}: every thread counts its elements in its own
+ * counter, so the threads of a parallel stream do not fight for the same cache line, and the counters are summed by
+ * the snapshot. The per thread counts are also the thread distribution. The times of the timed elements are rare,
+ * so they are simply {@link LongAdder}.
+ */
+final class Stage {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final String name;
+    private final long sampleMask;
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder sampledWallNanos = new LongAdder();
+    private final LongAdder sampledCpuNanos = new LongAdder();
+    private final Queue<ThreadCounter> threads = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ThreadCounter> local = ThreadLocal.withInitial(this::register);
+
+    Stage(String name, int sampleInterval) {
+        this.name = name;
+        this.sampleMask = sampleInterval - 1;
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * @return the counter of the current thread
+     */
+    ThreadCounter counter() {
+        return local.get();
+    }
+
+    /**
+     * Count an element into the stage.
+     *
+     * @return true if this element is timed
+     */
+    boolean enter(ThreadCounter counter) {
+        return (counter.enter() & sampleMask) == 0;
+    }
+
+    static long cpuTime() {
+        return THREADS.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * @param startCpu the cpu time of the thread before the element, negative if it is not supported
+     */
+    void timed(long wallNanos, long startCpu) {
+        sampled.increment();
+        sampledWallNanos.add(wallNanos);
+        if (startCpu >= 0) {
+            long endCpu = cpuTime();
+            if (endCpu >= startCpu) {
+                sampledCpuNanos.add(endCpu - startCpu);
+            }
+        }
+    }
+
+    void reset() {
+        sampled.reset();
+        sampledWallNanos.reset();
+        sampledCpuNanos.reset();
+        threads.forEach(ThreadCounter::reset);
+    }
+
+    StageSnapshot snapshot() {
+        long in = 0;
+        long out = 0;
+        Map<String, Long> threads = new TreeMap<>();
+        for (ThreadCounter counter : this.threads) {
+            long count = counter.in();
+            if (count > 0) {
+                in += count;
+                out += counter.out();
+                threads.merge(counter.thread, count, Long::sum);
+            }
+        }
+        long sampled = this.sampled.sum();
+        return new StageSnapshot(name, in, out, estimate(sampledWallNanos.sum(), sampled, in),
+                estimate(sampledCpuNanos.sum(), sampled, in), threads);
+    }
+
+    // the time of the timed elements scaled to all the elements
+    private static long estimate(long sampledNanos, long sampled, long total) {
+        return sampled == 0 ? 0 : Math.round((double) sampledNanos * total / sampled);
+    }
+
+    private ThreadCounter register() {
+        Thread thread = Thread.currentThread();
+        ThreadCounter counter = new ThreadCounter(thread.getName().isEmpty()
+                ? "thread-" + thread.threadId() : thread.getName());
+        threads.add(counter);
+        return counter;
+    }
+
+    /**
+     * Only written by its thread, so an opaque write is enough and cheaper than an atomic increment.
+     */
+    static final class ThreadCounter {
+
+        private static final VarHandle IN;
+        private static final VarHandle OUT;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                IN = lookup.findVarHandle(ThreadCounter.class, "in", long.class);
+                OUT = lookup.findVarHandle(ThreadCounter.class, "out", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private final String thread;
+        private long in;
+        private long out;
+
+        ThreadCounter(String thread) {
+            this.thread = thread;
+        }
+
+        // the count before the element
+        long enter() {
+            long in = this.in;
+            IN.setOpaque(this, in + 1);
+            return in;
+        }
+
+        void exit() {
+            OUT.setOpaque(this, out + 1);
+        }
+
+        long in() {
+            return (long) IN.getOpaque(this);
+        }
+
+        long out() {
+            return (long) OUT.getOpaque(this);
+        }
+
+        void reset() {
+            IN.setOpaque(this, 0L);
+            OUT.setOpaque(this, 0L);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package setianjay.stream.instrument;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event with the counters of a stage, committed by {@link PipelineProfiler#commit()}.
+ */
+@Name(value = "setianjay.stream.Stage")
+@Label(value = "Stream Stage")
+@Category(value = "Stream")
+@Description(value = "Elements and time of a stage of an instrumented stream pipeline")
+@StackTrace(value = false)
+final class StageEvent extends Event {
+
+    @Label(value = "Pipeline")
+    String pipeline;
+
+    @Label(value = "Stage")
+    String stage;
+
+    @Label(value = "Elements In")
+    long in;
+
+    @Label(value = "Elements Out")
+    long out;
+
+    @Label(value = "Wall Time")
+    @Timespan(value = Timespan.NANOSECONDS)
+    long wallTime;
+
+    @Label(value = "CPU Time")
+    @Timespan(value = Timespan.NANOSECONDS)
+    long cpuTime;
+
+    @Label(value = "Threads")
+    int threads;
+}
@@ -0,0 +1,26 @@
+package setianjay.stream.instrument;
+
+import java.util.Map;
+
+/**
+ * The counters of a stage at the time of the snapshot.
+ *
+ * @param in        elements into the stage
+ * @param out       elements out of the stage, the matched elements of a filter
+ * @param wallNanos wall time spent in the stage, estimated from the timed elements
+ * @param cpuNanos  cpu time spent in the stage, estimated from the timed elements, 0 if the JVM does not measure it
+ * @param threads   elements into the stage by every thread
+ */
+public record StageSnapshot(String name, long in, long out, long wallNanos, long cpuNanos, Map<String, Long> threads) {
+
+    public StageSnapshot {
+        threads = Map.copyOf(threads);
+    }
+
+    /**
+     * @return out divided by in, for example 0.1 for a filter that keeps 10% of the elements
+     */
+    public double selectivity() {
+        return in == 0 ? 0 : (double) out / in;
+    }
+}
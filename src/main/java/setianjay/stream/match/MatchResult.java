@@ -0,0 +1,63 @@
+package setianjay.stream.match;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The results of the checks of a {@link MultiMatch}, in the order the checks are added.
+ */
+public final class MatchResult {
+
+    private final String[] names;
+    private final boolean[] results;
+
+    MatchResult(String[] names, boolean[] results) {
+        this.names = names;
+        this.results = results;
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no check with the name
+     */
+    public boolean get(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return results[i];
+            }
+        }
+        throw new IllegalArgumentException("no check " + name);
+    }
+
+    public boolean get(int index) {
+        return results[index];
+    }
+
+    public int size() {
+        return results.length;
+    }
+
+    /**
+     * @return true if every check is true, for example when all the checks are validation rules
+     */
+    public boolean allTrue() {
+        for (boolean result : results) {
+            if (!result) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Map<String, Boolean> toMap() {
+        Map<String, Boolean> map = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            map.put(names[i], results[i]);
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -0,0 +1,175 @@
+package setianjay.stream.match;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Evaluate many {@code anyMatch}, {@code allMatch} and {@code noneMatch} in one pass over the stream. Running every
+ * check as its own pipeline scans the data once per check, here every element is tested by the checks that are not
+ * decided yet, and the stream stops as soon as all the checks are decided.
+ *
+ * <pre>{@code
+ * MultiMatch<Integer> validation = MultiMatch.<Integer>create()
+ *         .anyMatch("even", number -> number % 2 == 0)
+ *         .allMatch("positive", number -> number > 0)
+ *         .noneMatch("large", number -> number > 22);
+ * MatchResult result = validation.evaluate(numbers.stream().parallel());
+ * boolean even = result.get("even");
+ * }</pre>
+ *
+ * <p>On a parallel stream the checks are shared by all the splits, a check decided by one split is not tested by
+ * the others anymore, and the whole stream is cancelled when the last check is decided.
+ *
+ * @param <T> type of the element
+ */
+public final class MultiMatch<T> {
+
+    private final List<Check<T>> checks;
+
+    private MultiMatch(List<Check<T>> checks) {
+        this.checks = checks;
+    }
+
+    public static <T> MultiMatch<T> create() {
+        return new MultiMatch<>(List.of());
+    }
+
+    /**
+     * @return evaluator with a check that is true if any element matches, the same with {@code Stream.anyMatch}
+     */
+    public MultiMatch<T> anyMatch(String name, Predicate<? super T> predicate) {
+        return with(new Check<>(name, Kind.ANY, predicate));
+    }
+
+    /**
+     * @return evaluator with a check that is true if all elements match, the same with {@code Stream.allMatch}
+     */
+    public MultiMatch<T> allMatch(String name, Predicate<? super T> predicate) {
+        return with(new Check<>(name, Kind.ALL, predicate));
+    }
+
+    /**
+     * @return evaluator with a check that is true if no element matches, the same with {@code Stream.noneMatch}
+     */
+    public MultiMatch<T> noneMatch(String name, Predicate<? super T> predicate) {
+        return with(new Check<>(name, Kind.NONE, predicate));
+    }
+
+    private MultiMatch<T> with(Check<T> check) {
+        Objects.requireNonNull(check.predicate);
+        for (Check<T> existing : checks) {
+            if (existing.name.equals(check.name)) {
+                throw new IllegalArgumentException("duplicate check " + check.name);
+            }
+        }
+        List<Check<T>> checks = new ArrayList<>(this.checks);
+        checks.add(check);
+        return new MultiMatch<>(List.copyOf(checks));
+    }
+
+    public int size() {
+        return checks.size();
+    }
+
+    /**
+     * Evaluate all the checks with one terminal operation of the stream.
+     */
+    public MatchResult evaluate(Stream<? extends T> stream) {
+        Evaluation<T> evaluation = new Evaluation<>(checks);
+        if (!checks.isEmpty()) {
+            // findAny short circuits as soon as the last check is decided, and cancels the other splits
+            stream.filter(evaluation::test).findAny();
+        }
+        return evaluation.result();
+    }
+
+    private enum Kind {
+        ANY(true),
+        ALL(false),
+        NONE(true);
+
+        // the predicate result that decides the check
+        private final boolean trigger;
+
+        Kind(boolean trigger) {
+            this.trigger = trigger;
+        }
+    }
+
+    private record Check<T>(String name, Kind kind, Predicate<? super T> predicate) {
+
+        Check {
+            Objects.requireNonNull(name);
+        }
+
+        // the result when the check is decided by an element, the opposite when no element decides it
+        boolean decidedResult() {
+            return kind == Kind.ANY;
+        }
+    }
+
+    private static final class Evaluation<T> {
+
+        private final List<Check<T>> checks;
+        // guarded by this
+        private final boolean[] decided;
+        // the checks not decided yet, replaced (never changed) when a check is decided so the elements read it without
+        // a lock
+        private volatile Check<T>[] undecided;
+
+        @SuppressWarnings(value = "unchecked")
+        Evaluation(List<Check<T>> checks) {
+            this.checks = checks;
+            this.decided = new boolean[checks.size()];
+            this.undecided = checks.toArray(new Check[0]);
+        }
+
+        /**
+         * @return true when the element decides the last check, so the stream can stop
+         */
+        boolean test(T element) {
+            for (Check<T> check : undecided) {
+                if (check.predicate.test(element) == check.kind.trigger && decide(check)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return true if it is the last check, a check decided by another split in the meantime is ignored
+         */
+        @SuppressWarnings(value = "unchecked")
+        private synchronized boolean decide(Check<T> check) {
+            int index = checks.indexOf(check);
+            if (decided[index]) {
+                return false;
+            }
+            decided[index] = true;
+            Check<T>[] undecided = this.undecided;
+            Check<T>[] remaining = new Check[undecided.length - 1];
+            int size = 0;
+            for (Check<T> other : undecided) {
+                if (other != check) {
+                    remaining[size++] = other;
+                }
+            }
+            this.undecided = remaining;
+            return remaining.length == 0;
+        }
+
+        synchronized MatchResult result() {
+            String[] names = new String[decided.length];
+            boolean[] results = new boolean[decided.length];
+            for (int i = 0; i < decided.length; i++) {
+                Check<T> check = checks.get(i);
+                names[i] = check.name;
+                results[i] = decided[i] == check.decidedResult();
+            }
+            return new MatchResult(names, results);
+        }
+    }
+}
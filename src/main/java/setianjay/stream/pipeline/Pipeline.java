@@ -0,0 +1,196 @@
+package setianjay.stream.pipeline;
+
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.Collector;
+
+/**
+ * A filter and map chain defined once and run many times over small batches. A stream creates the source, the stage
+ * objects and the sinks of the whole chain on every use, for a batch of 10 elements that is more work than the
+ * chain itself. Here the stages are fused into one function when the pipeline is defined, and a terminal operation
+ * is a plain loop over the array or list, without any allocation for the stages.
+ *
+ * <pre>{@code
+ * // defined once, for example in a static field
+ * Pipeline<Integer, Integer> evenDoubled = Pipeline.<Integer>start()
+ *         .filter(number -> number % 2 == 0)
+ *         .map(number -> number * 2);
+ *
+ * // for every request
+ * int sum = evenDoubled.reduce(request.numbers(), 0, Integer::sum);
+ * }</pre>
+ *
+ * <p>The terminal operations read a list by index, a list that is not {@link RandomAccess} (like a
+ * {@code LinkedList}) is copied first. A pipeline is immutable and thread safe if its functions are, so the same
+ * pipeline can be run by many threads at the same time.
+ *
+ * @param <T> type of the input element
+ * @param <R> type of the output element
+ */
+public final class Pipeline<T, R> {
+
+    // returned by the fused function for an element removed by a filter
+    private static final Object SKIP = new Object();
+
+    private static final Pipeline<?, ?> START = new Pipeline<>(Function.identity());
+
+    // the input element to the output element, or SKIP
+    private final Function<Object, Object> fused;
+
+    private Pipeline(Function<Object, Object> fused) {
+        this.fused = fused;
+    }
+
+    @SuppressWarnings(value = "unchecked")
+    public static <T> Pipeline<T, T> start() {
+        return (Pipeline<T, T>) START;
+    }
+
+    @SuppressWarnings(value = "unchecked")
+    public Pipeline<T, R> filter(Predicate<? super R> predicate) {
+        Objects.requireNonNull(predicate);
+        Function<Object, Object> previous = fused;
+        return new Pipeline<>(element -> {
+            Object value = previous.apply(element);
+            return value != SKIP && predicate.test((R) value) ? value : SKIP;
+        });
+    }
+
+    @SuppressWarnings(value = "unchecked")
+    public <V> Pipeline<T, V> map(Function<? super R, ? extends V> mapper) {
+        Objects.requireNonNull(mapper);
+        Function<Object, Object> previous = fused;
+        return new Pipeline<>(element -> {
+            Object value = previous.apply(element);
+            return value == SKIP ? SKIP : mapper.apply((R) value);
+        });
+    }
+
+    @SuppressWarnings(value = "unchecked")
+    public Pipeline<T, R> peek(Consumer<? super R> action) {
+        Objects.requireNonNull(action);
+        Function<Object, Object> previous = fused;
+        return new Pipeline<>(element -> {
+            Object value = previous.apply(element);
+            if (value != SKIP) {
+                action.accept((R) value);
+            }
+            return value;
+        });
+    }
+
+    public void forEach(T[] elements, Consumer<? super R> action) {
+        forEach(Arrays.asList(elements), action);
+    }
+
+    @SuppressWarnings(value = "unchecked")
+    public void forEach(List<? extends T> elements, Consumer<? super R> action) {
+        Function<Object, Object> fused = this.fused;
+        elements = randomAccess(elements);
+        for (int i = 0, size = elements.size(); i < size; i++) {
+            Object value = fused.apply(elements.get(i));
+            if (value != SKIP) {
+                action.accept((R) value);
+            }
+        }
+    }
+
+    public R reduce(T[] elements, R identity, BinaryOperator<R> accumulator) {
+        return reduce(Arrays.asList(elements), identity, accumulator);
+    }
+
+    @SuppressWarnings(value = "unchecked")
+    public R reduce(List<? extends T> elements, R identity, BinaryOperator<R> accumulator) {
+        Function<Object, Object> fused = this.fused;
+        elements = randomAccess(elements);
+        R result = identity;
+        for (int i = 0, size = elements.size(); i < size; i++) {
+            Object value = fused.apply(elements.get(i));
+            if (value != SKIP) {
+                result = accumulator.apply(result, (R) value);
+            }
+        }
+        return result;
+    }
+
+    public long count(T[] elements) {
+        return count(Arrays.asList(elements));
+    }
+
+    public long count(List<? extends T> elements) {
+        Function<Object, Object> fused = this.fused;
+        elements = randomAccess(elements);
+        long count = 0;
+        for (int i = 0, size = elements.size(); i < size; i++) {
+            if (fused.apply(elements.get(i)) != SKIP) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long sum(T[] elements, ToLongFunction<? super R> mapper) {
+        return sum(Arrays.asList(elements), mapper);
+    }
+
+    @SuppressWarnings(value = "unchecked")
+    public long sum(List<? extends T> elements, ToLongFunction<? super R> mapper) {
+        Function<Object, Object> fused = this.fused;
+        elements = randomAccess(elements);
+        long sum = 0;
+        for (int i = 0, size = elements.size(); i < size; i++) {
+            Object value = fused.apply(elements.get(i));
+            if (value != SKIP) {
+                sum += mapper.applyAsLong((R) value);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * The first output element, it stops at the first element that passes all the filters.
+     */
+    public Optional<R> findFirst(T[] elements) {
+        return findFirst(Arrays.asList(elements));
+    }
+
+    @SuppressWarnings(value = "unchecked")
+    public Optional<R> findFirst(List<? extends T> elements) {
+        Function<Object, Object> fused = this.fused;
+        elements = randomAccess(elements);
+        for (int i = 0, size = elements.size(); i < size; i++) {
+            Object value = fused.apply(elements.get(i));
+            if (value != SKIP) {
+                return Optional.of((R) value);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<R> toList(T[] elements) {
+        return toList(Arrays.asList(elements));
+    }
+
+    public List<R> toList(List<? extends T> elements) {
+        List<R> list = new ArrayList<>(elements.size());
+        forEach(elements, list::add);
+        return Collections.unmodifiableList(list);
+    }
+
+    public <A, C> C collect(T[] elements, Collector<? super R, A, C> collector) {
+        return collect(Arrays.asList(elements), collector);
+    }
+
+    @SuppressWarnings(value = "unchecked")
+    public <A, C> C collect(List<? extends T> elements, Collector<? super R, A, C> collector) {
+        A container = collector.supplier().get();
+        BiConsumer<A, ? super R> accumulator = collector.accumulator();
+        forEach(elements, element -> accumulator.accept(container, element));
+        return collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+                ? (C) container : collector.finisher().apply(container);
+    }
+
+    private static <E> List<E> randomAccess(List<E> elements) {
+        return elements instanceof RandomAccess ? elements : new ArrayList<>(elements);
+    }
+}
@@ -0,0 +1,108 @@
+package setianjay.stream.slice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@code limit}, {@code skip}, {@code takeWhile} and {@code dropWhile} for ordered parallel streams. The stream
+ * operations do not know where the result starts and ends before the elements are read, so on a parallel stream
+ * they buffer the results of every split until the splits before it are done. Here the position of the result is
+ * computed first:
+ *
+ * <ul>
+ *     <li>{@link #limit} and {@link #skip} on a SIZED source compute the index range of every split, the splits
+ *     outside the range are never read.</li>
+ *     <li>{@link #takeWhile} and {@link #dropWhile} on a list search the first element that does not match in
+ *     parallel, cancel the search after it, and return a view of the list before or after it.</li>
+ * </ul>
+ *
+ * <pre>{@code
+ * List<Integer> firstPage = OrderedSlices.limit(OrderedSlices.skip(numbers.parallelStream(), 100), 20).toList();
+ * long smallSum = OrderedSlices.takeWhile(sortedNumbers, number -> number < 1000).mapToLong(Integer::longValue).sum();
+ * }</pre>
+ */
+public final class OrderedSlices {
+
+    /**
+     * The minimum elements scanned by a task of the prefix search.
+     */
+    public static final int DEFAULT_MIN_CHUNK = 1 << 12;
+
+    private OrderedSlices() {
+    }
+
+    /**
+     * The same with {@code stream.limit(maxSize)}.
+     */
+    public static <T> Stream<T> limit(Stream<T> stream, long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must not be negative: " + maxSize);
+        }
+        return slice(stream, 0, maxSize);
+    }
+
+    /**
+     * The same with {@code stream.skip(n)}.
+     */
+    public static <T> Stream<T> skip(Stream<T> stream, long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must not be negative: " + n);
+        }
+        return slice(stream, n, Long.MAX_VALUE);
+    }
+
+    /**
+     * The elements at the index {@code [from, to)}, the same with {@code stream.skip(from).limit(to - from)}. If the
+     * stream does not know the exact size of its splits (for example after a {@code filter}) the stream operations
+     * are used.
+     */
+    public static <T> Stream<T> slice(Stream<T> stream, long from, long to) {
+        if (from < 0 || from > to) {
+            throw new IllegalArgumentException("invalid range [" + from + ", " + to + ")");
+        }
+        Spliterator<T> spliterator = stream.spliterator();
+        Stream<T> slice;
+        if (spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED)) {
+            slice = StreamSupport.stream(new SliceSpliterator<>(spliterator, 0, from, to), stream.isParallel());
+        } else {
+            slice = StreamSupport.stream(spliterator, stream.isParallel()).skip(from).limit(to - from);
+        }
+        return slice.onClose(stream::close);
+    }
+
+    public static <T> Stream<T> takeWhile(List<T> list, Predicate<? super T> predicate) {
+        return takeWhile(list, predicate, DEFAULT_MIN_CHUNK);
+    }
+
+    /**
+     * The same with {@code list.parallelStream().takeWhile(predicate)}, the returned stream is parallel. A list that
+     * is not {@link RandomAccess} is copied first.
+     */
+    public static <T> Stream<T> takeWhile(List<T> list, Predicate<? super T> predicate, int minChunk) {
+        List<T> elements = randomAccess(list);
+        return elements.subList(0, PrefixSearch.search(elements, predicate, minChunk)).parallelStream();
+    }
+
+    public static <T> Stream<T> dropWhile(List<T> list, Predicate<? super T> predicate) {
+        return dropWhile(list, predicate, DEFAULT_MIN_CHUNK);
+    }
+
+    /**
+     * The same with {@code list.parallelStream().dropWhile(predicate)}, the returned stream is parallel. A list that
+     * is not {@link RandomAccess} is copied first.
+     */
+    public static <T> Stream<T> dropWhile(List<T> list, Predicate<? super T> predicate, int minChunk) {
+        List<T> elements = randomAccess(list);
+        return elements.subList(PrefixSearch.search(elements, predicate, minChunk), elements.size())
+                .parallelStream();
+    }
+
+    private static <T> List<T> randomAccess(List<T> list) {
+        return list instanceof RandomAccess ? list : new ArrayList<>(list);
+    }
+}
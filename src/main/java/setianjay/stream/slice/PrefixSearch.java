@@ -0,0 +1,66 @@
+package setianjay.stream.slice;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Find the index of the first element that does not match, by scanning the chunks of the list in parallel. The
+ * smallest index found is shared by all the tasks, a task after it is cancelled (it stops at its next element, or
+ * is not started at all), because the elements after the cut can not change the result.
+ *
+ * @param <T> type of the element
+ */
+final class PrefixSearch<T> extends RecursiveAction {
+
+    private final List<? extends T> list;
+    private final Predicate<? super T> predicate;
+    private final int from;
+    private final int to;
+    private final int minChunk;
+    // the first index that does not match found so far, the size of the list if none
+    private final AtomicLong cut;
+
+    private PrefixSearch(List<? extends T> list, Predicate<? super T> predicate, int from, int to, int minChunk,
+                         AtomicLong cut) {
+        this.list = list;
+        this.predicate = predicate;
+        this.from = from;
+        this.to = to;
+        this.minChunk = minChunk;
+        this.cut = cut;
+    }
+
+    /**
+     * @return index of the first element that does not match, or the size of the list if all of them match
+     */
+    static <T> int search(List<? extends T> list, Predicate<? super T> predicate, int minChunk) {
+        if (minChunk <= 0) {
+            throw new IllegalArgumentException("minChunk must be positive: " + minChunk);
+        }
+        AtomicLong cut = new AtomicLong(list.size());
+        // in the pool of the caller if it is a fork join worker, otherwise in the common pool
+        new PrefixSearch<>(list, predicate, 0, list.size(), minChunk, cut).invoke();
+        return (int) cut.get();
+    }
+
+    @Override
+    protected void compute() {
+        if (from >= cut.get()) {
+            return;
+        }
+        if (to - from > minChunk) {
+            int middle = (from + to) >>> 1;
+            invokeAll(new PrefixSearch<>(list, predicate, from, middle, minChunk, cut),
+                    new PrefixSearch<>(list, predicate, middle, to, minChunk, cut));
+            return;
+        }
+        for (int i = from; i < to && i < cut.get(); i++) {
+            if (!predicate.test(list.get(i))) {
+                cut.accumulateAndGet(i, Math::min);
+                return;
+            }
+        }
+    }
+}
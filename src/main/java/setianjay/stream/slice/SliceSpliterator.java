@@ -0,0 +1,98 @@
+package setianjay.stream.slice;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * The elements at the index {@code [from, to)} of a SIZED and SUBSIZED spliterator. Every split knows the index of
+ * its first element, so a split entirely outside the range is dropped without being traversed, and only the two
+ * splits at the edges of the range have to skip elements.
+ *
+ * @param <T> type of the element
+ */
+final class SliceSpliterator<T> implements Spliterator<T> {
+
+    private Spliterator<T> source;
+    // the index of the next element of the source
+    private long origin;
+    private final long from;
+    private final long to;
+
+    SliceSpliterator(Spliterator<T> source, long origin, long from, long to) {
+        this.source = source;
+        this.origin = origin;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        while (origin < to) {
+            Spliterator<T> prefix = source.trySplit();
+            if (prefix == null) {
+                return null;
+            }
+            long prefixEnd = origin + prefix.estimateSize();
+            if (prefixEnd <= from) {
+                // the prefix is before the range
+                origin = prefixEnd;
+            } else if (prefixEnd >= to) {
+                // the rest is after the range
+                source = prefix;
+            } else {
+                Spliterator<T> slice = new SliceSpliterator<>(prefix, origin, from, to);
+                origin = prefixEnd;
+                return slice;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        skipToFrom();
+        if (origin >= to || !source.tryAdvance(action)) {
+            return false;
+        }
+        origin++;
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        skipToFrom();
+        long size = source.estimateSize();
+        if (origin + size <= to) {
+            source.forEachRemaining(action);
+            origin += size;
+        } else {
+            while (origin < to && source.tryAdvance(action)) {
+                origin++;
+            }
+        }
+    }
+
+    private void skipToFrom() {
+        while (origin < from && source.tryAdvance(element -> {
+        })) {
+            origin++;
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        long end = Math.min(to, origin + source.estimateSize());
+        return Math.max(0, end - Math.max(from, origin));
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics();
+    }
+
+    @Override
+    public Comparator<? super T> getComparator() {
+        return source.getComparator();
+    }
+}
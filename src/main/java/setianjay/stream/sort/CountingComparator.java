@@ -0,0 +1,35 @@
+package setianjay.stream.sort;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Comparator that counts how many times it is called, to measure how many comparisons a sort actually does. The
+ * counter is a {@link LongAdder}, so it can be used by {@code parallel().sorted(...)} or {@code Arrays.parallelSort}.
+ *
+ * @param <T> type of the compared object
+ */
+public final class CountingComparator<T> implements Comparator<T> {
+
+    private final Comparator<T> delegate;
+    private final LongAdder comparisons = new LongAdder();
+
+    public CountingComparator(Comparator<T> delegate) {
+        this.delegate = Objects.requireNonNull(delegate);
+    }
+
+    @Override
+    public int compare(T left, T right) {
+        comparisons.increment();
+        return delegate.compare(left, right);
+    }
+
+    public long comparisons() {
+        return comparisons.sum();
+    }
+
+    public void reset() {
+        comparisons.reset();
+    }
+}
@@ -0,0 +1,226 @@
+package setianjay.stream.sort;
+
+import setianjay.stream.spill.Serializer;
+import setianjay.stream.spill.SpillFile;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sort for a stream that does not fit in the heap, {@code Stream.sorted()} buffers the whole stream in an array.
+ * The source is read in runs of {@code maxInMemory} elements, every run is sorted in memory and written to a
+ * {@link SpillFile}. The sorted stream lazily merges the runs with a k-way merge, when there are more runs than
+ * {@code maxFanIn} they are merged to bigger runs first. A stream that fits in one run is never written to disk.
+ *
+ * <p>The sort is stable, the same with {@code Stream.sorted()} on an ordered stream.
+ *
+ * <pre>{@code
+ * try (Stream<String> sorted = ExternalSort.of(stringSizeComparator, Serializer.strings(), 1_000_000).apply(lines)) {
+ *     sorted.forEach(...);
+ * }
+ * }</pre>
+ *
+ * @param <T> type of the element
+ */
+public final class ExternalSort<T> {
+
+    public static final int DEFAULT_MAX_FAN_IN = 64;
+
+    private final Comparator<? super T> comparator;
+    private final Serializer<T> serializer;
+    private final int maxInMemory;
+    private final int maxFanIn;
+    private final Path directory;
+    private int runCount;
+    private long spilledBytes;
+
+    private ExternalSort(Comparator<? super T> comparator, Serializer<T> serializer, int maxInMemory, int maxFanIn,
+                         Path directory) {
+        if (maxInMemory <= 0 || maxFanIn <= 1) {
+            throw new IllegalArgumentException("maxInMemory must be positive and maxFanIn must be more than 1");
+        }
+        this.comparator = Objects.requireNonNull(comparator);
+        this.serializer = Objects.requireNonNull(serializer);
+        this.maxInMemory = maxInMemory;
+        this.maxFanIn = maxFanIn;
+        this.directory = directory;
+    }
+
+    public static <T> ExternalSort<T> of(Comparator<? super T> comparator, Serializer<T> serializer, int maxInMemory) {
+        return new ExternalSort<>(comparator, serializer, maxInMemory, DEFAULT_MAX_FAN_IN, null);
+    }
+
+    /**
+     * @param maxInMemory maximum number of elements sorted in memory, the size of a run
+     * @param maxFanIn    maximum number of runs merged at once
+     * @param directory   directory of the run files, or null for the default temporary directory
+     */
+    public static <T> ExternalSort<T> of(Comparator<? super T> comparator, Serializer<T> serializer, int maxInMemory,
+                                         int maxFanIn, Path directory) {
+        return new ExternalSort<>(comparator, serializer, maxInMemory, maxFanIn, directory);
+    }
+
+    /**
+     * The sorted stream of the source, the source is read when the first element is requested. Closing the stream
+     * deletes the run files. The instance can only be applied once.
+     */
+    public Stream<T> apply(Stream<T> source) {
+        SortedSpliterator spliterator = new SortedSpliterator(source.spliterator());
+        return StreamSupport.stream(spliterator, false)
+                .onClose(source::close)
+                .onClose(spliterator::close);
+    }
+
+    /**
+     * @return number of runs written to disk, 0 if the stream fits in memory
+     */
+    public int runCount() {
+        return runCount;
+    }
+
+    /**
+     * @return total bytes written to the run files, including the intermediate merges
+     */
+    public long spilledBytes() {
+        return spilledBytes;
+    }
+
+    private final class SortedSpliterator implements Spliterator<T> {
+
+        private Spliterator<T> source;
+        private Iterator<T> sorted;
+        private final List<SpillFile<T>> runs = new ArrayList<>();
+
+        SortedSpliterator(Spliterator<T> source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (sorted == null) {
+                sorted = sort();
+            }
+            if (!sorted.hasNext()) {
+                return false;
+            }
+            action.accept(sorted.next());
+            return true;
+        }
+
+        private Iterator<T> sort() {
+            List<T> buffer = new ArrayList<>(Math.min(maxInMemory, 1 << 16));
+            boolean hasMore = true;
+            while (hasMore) {
+                while (buffer.size() < maxInMemory && (hasMore = source.tryAdvance(buffer::add))) {
+                    // fill the buffer
+                }
+
+                if (runs.isEmpty() && !hasMore) {
+                    // the whole stream fits in memory
+                    buffer.sort(comparator);
+                    source = null;
+                    return buffer.iterator();
+                }
+                if (!buffer.isEmpty()) {
+                    buffer.sort(comparator);
+                    SpillFile<T> run = SpillFile.create(directory, serializer);
+                    buffer.forEach(run::append);
+                    finishRun(run);
+                    buffer.clear();
+                }
+            }
+            source = null;
+
+            // merge the neighbouring runs pass by pass, so the runs stay in the order of the source and the sort
+            // stays stable
+            while (runs.size() > maxFanIn) {
+                List<SpillFile<T>> merged = new ArrayList<>();
+                for (int from = 0; from < runs.size(); from += maxFanIn) {
+                    List<SpillFile<T>> group = runs.subList(from, Math.min(from + maxFanIn, runs.size()));
+                    if (group.size() == 1) {
+                        merged.add(group.get(0));
+                        continue;
+                    }
+                    SpillFile<T> run = SpillFile.create(directory, serializer);
+                    merge(group).forEachRemaining(run::append);
+                    group.forEach(SpillFile::close);
+                    run.flush();
+                    runCount++;
+                    spilledBytes += run.size();
+                    merged.add(run);
+                }
+                runs.clear();
+                runs.addAll(merged);
+            }
+            return merge(runs);
+        }
+
+        private void finishRun(SpillFile<T> run) {
+            run.flush();
+            runs.add(run);
+            runCount++;
+            spilledBytes += run.size();
+        }
+
+        void close() {
+            runs.forEach(SpillFile::close);
+            runs.clear();
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return source != null ? source.estimateSize() : Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED;
+        }
+    }
+
+    /**
+     * k-way merge of sorted runs with a heap of the head of every run, the tie is broken by the index of the run.
+     */
+    private Iterator<T> merge(List<SpillFile<T>> runs) {
+        record Head<T>(T value, int run, Iterator<T> rest) {
+        }
+
+        PriorityQueue<Head<T>> heap = new PriorityQueue<>(Math.max(1, runs.size()), (left, right) -> {
+            int comparison = comparator.compare(left.value(), right.value());
+            return comparison != 0 ? comparison : Integer.compare(left.run(), right.run());
+        });
+        for (int i = 0; i < runs.size(); i++) {
+            Iterator<T> iterator = runs.get(i).iterator();
+            if (iterator.hasNext()) {
+                heap.add(new Head<>(iterator.next(), i, iterator));
+            }
+        }
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heap.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                Head<T> head = heap.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                if (head.rest().hasNext()) {
+                    heap.add(new Head<>(head.rest().next(), head.run(), head.rest()));
+                }
+                return head.value();
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package setianjay.stream.sort;
+
+import java.util.*;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Sort by a precomputed {@code int} key (Schwartzian transform). A comparator like
+ * {@code comparingInt(String::length).thenComparing(naturalOrder())} extracts the key of both objects on every
+ * comparison. Here the key of every element is extracted once into a {@code long[]} together with the index of the
+ * element, the array is sorted as primitive, and only the elements with the same key are sorted with the tie
+ * breaking comparator.
+ *
+ * <pre>{@code
+ * KeyedSort<String> stringSizeSort = KeyedSort.comparingInt(String::length)
+ *         .thenComparing(Comparator.naturalOrder());
+ * List<String> sortedList = stringSizeSort.sort(names);
+ * }</pre>
+ *
+ * <p>The sort is stable, the same with {@code Stream.sorted()} on an ordered stream.
+ *
+ * @param <T> type of the sorted element
+ */
+public final class KeyedSort<T> {
+
+    private static final SortListener NO_LISTENER = (size, comparisons, elapsedNanos) -> {
+    };
+
+    private final ToIntFunction<? super T> keyExtractor;
+    // null if the elements with the same key keep the encounter order
+    private final Comparator<? super T> tieBreaker;
+    private final SortListener listener;
+
+    private KeyedSort(ToIntFunction<? super T> keyExtractor, Comparator<? super T> tieBreaker, SortListener listener) {
+        this.keyExtractor = keyExtractor;
+        this.tieBreaker = tieBreaker;
+        this.listener = listener;
+    }
+
+    public static <T> KeyedSort<T> comparingInt(ToIntFunction<? super T> keyExtractor) {
+        return new KeyedSort<>(Objects.requireNonNull(keyExtractor), null, NO_LISTENER);
+    }
+
+    /**
+     * @return sort that orders the elements with the same key with the comparator
+     */
+    public KeyedSort<T> thenComparing(Comparator<? super T> comparator) {
+        Objects.requireNonNull(comparator);
+        Comparator<? super T> combined = tieBreaker == null ? comparator : thenComparing(tieBreaker, comparator);
+        return new KeyedSort<>(keyExtractor, combined, listener);
+    }
+
+    /**
+     * @return sort that reports its metrics to the listener
+     */
+    public KeyedSort<T> withListener(SortListener listener) {
+        return new KeyedSort<>(keyExtractor, tieBreaker, Objects.requireNonNull(listener));
+    }
+
+    /**
+     * @return comparator with the same order, for the code that needs a {@link Comparator}
+     */
+    public Comparator<T> comparator() {
+        Comparator<T> byKey = Comparator.comparingInt(keyExtractor);
+        return tieBreaker == null ? byKey : byKey.thenComparing(tieBreaker);
+    }
+
+    public List<T> sort(Collection<? extends T> elements) {
+        @SuppressWarnings(value = "unchecked")
+        T[] array = (T[]) elements.toArray();
+        sortInPlace(array);
+        return Arrays.asList(array);
+    }
+
+    public Stream<T> sorted(Stream<T> stream) {
+        @SuppressWarnings(value = "unchecked")
+        T[] array = (T[]) stream.toArray();
+        sortInPlace(array);
+        return Arrays.stream(array);
+    }
+
+    public void sortInPlace(T[] elements) {
+        long start = System.nanoTime();
+        int size = elements.length;
+
+        // the key in the high half and the index in the low half, the signed order of the long is the order of the
+        // key and then the encounter order
+        long[] keyAndIndex = new long[size];
+        for (int i = 0; i < size; i++) {
+            keyAndIndex[i] = ((long) keyExtractor.applyAsInt(elements[i]) << 32) | i;
+        }
+        Arrays.sort(keyAndIndex);
+
+        Object[] sorted = new Object[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = elements[(int) keyAndIndex[i]];
+        }
+
+        long comparisons = 0;
+        if (tieBreaker != null) {
+            CountingComparator<Object> counting = new CountingComparator<>(castTieBreaker());
+            int from = 0;
+            while (from < size) {
+                int key = (int) (keyAndIndex[from] >> 32);
+                int to = from + 1;
+                while (to < size && (int) (keyAndIndex[to] >> 32) == key) {
+                    to++;
+                }
+                if (to - from > 1) {
+                    Arrays.sort(sorted, from, to, counting);
+                }
+                from = to;
+            }
+            comparisons = counting.comparisons();
+        }
+
+        System.arraycopy(sorted, 0, elements, 0, size);
+        listener.onSort(size, comparisons, System.nanoTime() - start);
+    }
+
+    @SuppressWarnings(value = "unchecked")
+    private Comparator<Object> castTieBreaker() {
+        return (Comparator<Object>) tieBreaker;
+    }
+
+    private static <T> Comparator<T> thenComparing(Comparator<? super T> first, Comparator<? super T> second) {
+        return (left, right) -> {
+            int comparison = first.compare(left, right);
+            return comparison != 0 ? comparison : second.compare(left, right);
+        };
+    }
+}
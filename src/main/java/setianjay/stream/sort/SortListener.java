@@ -0,0 +1,16 @@
+package setianjay.stream.sort;
+
+/**
+ * Called by {@link KeyedSort} after every sort, for example to record the metrics of the sort.
+ */
+@FunctionalInterface
+public interface SortListener {
+
+    /**
+     * @param size         number of sorted elements
+     * @param comparisons  number of calls to the tie breaking comparator, the int keys are compared without a
+     *                     comparator
+     * @param elapsedNanos time of the sort, including the extraction of the keys
+     */
+    void onSort(int size, long comparisons, long elapsedNanos);
+}
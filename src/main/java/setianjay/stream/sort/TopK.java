@@ -0,0 +1,179 @@
+package setianjay.stream.sort;
+
+import java.util.*;
+import java.util.stream.Collector;
+
+/**
+ * The first {@code k} elements in the order of a comparator, the same result with {@code sorted(comparator).limit(k)}
+ * but in O(n log k) time and O(min(n, k)) memory. {@code sorted()} sorts and keeps the whole stream before
+ * {@code limit()} takes the first elements.
+ *
+ * <p>Every container keeps a bounded max heap of its best {@code k} elements, so on a parallel stream every split
+ * has its own heap and the heaps are merged in the combiner. Equal elements are kept in encounter order, the same
+ * with {@code sorted()} on an ordered stream.
+ *
+ * <pre>{@code
+ * List<String> shortestNames = names.stream().collect(TopK.smallest(10, stringSizeComparator));
+ * }</pre>
+ */
+public final class TopK {
+
+    private TopK() {
+    }
+
+    /**
+     * @return collector of the {@code k} smallest elements in ascending order, like {@code sorted(comparator).limit(k)}
+     */
+    public static <T> Collector<T, ?, List<T>> smallest(int k, Comparator<? super T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        Objects.requireNonNull(comparator);
+        return Collector.of(
+                () -> new BoundedHeap<T>(k, comparator),
+                BoundedHeap::add,
+                BoundedHeap::combine,
+                BoundedHeap::toSortedList
+        );
+    }
+
+    /**
+     * @return collector of the {@code k} largest elements in descending order, like
+     * {@code sorted(comparator.reversed()).limit(k)}
+     */
+    public static <T> Collector<T, ?, List<T>> largest(int k, Comparator<? super T> comparator) {
+        return smallest(k, Collections.reverseOrder(comparator));
+    }
+
+    // first capacity of a heap, a split of a parallel stream may only hold a few elements
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Max heap of the best {@code k} elements seen by this container, the root is the worst of them. An element is
+     * ordered by the comparator and then by its sequence, so of two equal elements the later one is worse.
+     */
+    private static final class BoundedHeap<T> {
+
+        private final int k;
+        private final Comparator<? super T> comparator;
+        private Object[] values;
+        private long[] sequences;
+        private int size;
+        // number of elements seen, the sequence of the next element
+        private long seen;
+
+        BoundedHeap(int k, Comparator<? super T> comparator) {
+            this.k = k;
+            this.comparator = comparator;
+            // grown on demand up to k, a big k does not allocate more than the elements it holds
+            int capacity = Math.min(k, INITIAL_CAPACITY);
+            this.values = new Object[capacity];
+            this.sequences = new long[capacity];
+        }
+
+        void add(T value) {
+            offer(value, seen++);
+        }
+
+        BoundedHeap<T> combine(BoundedHeap<T> right) {
+            // every element of the right container comes after the elements of this container
+            for (int i = 0; i < right.size; i++) {
+                offer(right.value(i), seen + right.sequences[i]);
+            }
+            seen += right.seen;
+            return this;
+        }
+
+        List<T> toSortedList() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (left, right) -> compare(left, right));
+
+            List<T> result = new ArrayList<>(size);
+            for (Integer index : order) {
+                result.add(value(index));
+            }
+            return result;
+        }
+
+        private void offer(T value, long sequence) {
+            if (size < k) {
+                if (size == values.length) {
+                    grow();
+                }
+                values[size] = value;
+                sequences[size] = sequence;
+                siftUp(size++);
+                return;
+            }
+            // the value replace the root only if it is better than the worst kept element
+            if (k == 0 || compare(value, sequence, 0) >= 0) {
+                return;
+            }
+            values[0] = value;
+            sequences[0] = sequence;
+            siftDown(0);
+        }
+
+        private void grow() {
+            int capacity = (int) Math.min(k, 2L * values.length);
+            values = Arrays.copyOf(values, capacity);
+            sequences = Arrays.copyOf(sequences, capacity);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (compare(index, parent) <= 0) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int largest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && compare(left, largest) > 0) {
+                    largest = left;
+                }
+                if (right < size && compare(right, largest) > 0) {
+                    largest = right;
+                }
+                if (largest == index) {
+                    return;
+                }
+                swap(index, largest);
+                index = largest;
+            }
+        }
+
+        private int compare(int left, int right) {
+            return compare(value(left), sequences[left], right);
+        }
+
+        private int compare(T value, long sequence, int index) {
+            int comparison = comparator.compare(value, value(index));
+            return comparison != 0 ? comparison : Long.compare(sequence, sequences[index]);
+        }
+
+        private void swap(int left, int right) {
+            Object value = values[left];
+            values[left] = values[right];
+            values[right] = value;
+            long sequence = sequences[left];
+            sequences[left] = sequences[right];
+            sequences[right] = sequence;
+        }
+
+        @SuppressWarnings(value = "unchecked")
+        private T value(int index) {
+            return (T) values[index];
+        }
+    }
+}
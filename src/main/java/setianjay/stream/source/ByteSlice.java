@@ -0,0 +1,191 @@
+package setianjay.stream.source;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A view of some bytes of a buffer, without copying them. It is a {@link CharSequence} of the bytes as ISO-8859-1
+ * characters (one byte is one character), which is the same with the text for ASCII files like most logs and CSV.
+ * {@link #toString()} is the same ISO-8859-1 view, so {@code length()}, {@code charAt} and {@code toString()} always
+ * agree. Use {@link #toUtf8String()} or {@link #toString(Charset)} for other text.
+ *
+ * <p>Two slices with the same bytes are equal, so a slice can be used as the key of a {@code groupingBy}. A slice
+ * keeps the whole mapped window of the file alive, use {@link #toUtf8String()} for the values kept for a long time.
+ */
+public final class ByteSlice implements CharSequence, Comparable<ByteSlice> {
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    ByteSlice(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * @return slice of the UTF-8 bytes of the value, equal to the slice of the same text in a UTF-8 file
+     */
+    public static ByteSlice of(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return new ByteSlice(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    public byte byteAt(int index) {
+        return buffer.get(offset + checkIndex(index));
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (byteAt(index) & 0xFF);
+    }
+
+    @Override
+    public ByteSlice subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("[" + start + ", " + end + ") of length " + length);
+        }
+        return new ByteSlice(buffer, offset + start, end - start);
+    }
+
+    /**
+     * @return index of the first byte from {@code fromIndex}, or -1 if not found
+     */
+    public int indexOf(byte value, int fromIndex) {
+        for (int i = Math.max(fromIndex, 0); i < length; i++) {
+            if (buffer.get(offset + i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The field at {@code index} of a delimited line, for example {@code field(2, (byte) ',')} of a CSV line.
+     *
+     * @throws IndexOutOfBoundsException if the line has less fields
+     */
+    public ByteSlice field(int index, byte delimiter) {
+        int start = 0;
+        for (int i = 0; i < index; i++) {
+            int next = indexOf(delimiter, start);
+            if (next < 0) {
+                throw new IndexOutOfBoundsException("field " + index + " of " + this);
+            }
+            start = next + 1;
+        }
+        int end = indexOf(delimiter, start);
+        return subSequence(start, end < 0 ? length : end);
+    }
+
+    /**
+     * Parse the bytes as a decimal number, without creating a string.
+     *
+     * @throws NumberFormatException if the bytes are not a number
+     */
+    public long parseLong() {
+        if (length == 0) {
+            throw new NumberFormatException("empty slice");
+        }
+        boolean negative = byteAt(0) == '-';
+        int i = negative || byteAt(0) == '+' ? 1 : 0;
+        if (i == length) {
+            throw new NumberFormatException(toString());
+        }
+        long result = 0;
+        for (; i < length; i++) {
+            int digit = byteAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException(toString());
+            }
+            // accumulate negatively, so Long.MIN_VALUE can be parsed
+            if (result < (Long.MIN_VALUE + digit) / 10) {
+                throw new NumberFormatException("overflow: " + this);
+            }
+            result = result * 10 - digit;
+        }
+        if (!negative && result == Long.MIN_VALUE) {
+            throw new NumberFormatException("overflow: " + this);
+        }
+        return negative ? result : -result;
+    }
+
+    public int parseInt() {
+        return Math.toIntExact(parseLong());
+    }
+
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return bytes;
+    }
+
+    public String toString(Charset charset) {
+        return new String(toByteArray(), charset);
+    }
+
+    /**
+     * @return the bytes decoded as UTF-8
+     */
+    public String toUtf8String() {
+        return toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the bytes as ISO-8859-1 characters, the same text with the {@link CharSequence} view
+     */
+    @Override
+    public String toString() {
+        return toString(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Compare the bytes as unsigned, the same order with the ISO-8859-1 characters and with the code points of UTF-8
+     * text, {@code ByteBuffer.compareTo} compares signed bytes.
+     */
+    @Override
+    public int compareTo(ByteSlice other) {
+        int mismatch = buffer.slice(offset, length).mismatch(other.buffer.slice(other.offset, other.length));
+        if (mismatch < 0) {
+            return 0;
+        }
+        if (mismatch == length || mismatch == other.length) {
+            return Integer.compare(length, other.length);
+        }
+        return Byte.compareUnsigned(buffer.get(offset + mismatch), other.buffer.get(other.offset + mismatch));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ByteSlice slice) || length != slice.length) {
+            return false;
+        }
+        return buffer.slice(offset, length).equals(slice.buffer.slice(slice.offset, slice.length));
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buffer.get(offset + i);
+        }
+        return hash;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + " of length " + length);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,65 @@
+package setianjay.stream.source;
+
+import java.util.Spliterator;
+
+/**
+ * Base of the spliterators over an index range {@code [from, to)}. A split always cuts the remaining range in half,
+ * so both halves have the exact size (SIZED and SUBSIZED) and the work of a parallel stream is spread evenly. A range
+ * smaller than two times {@code minChunk} is not split anymore, so a task is never smaller than {@code minChunk}.
+ *
+ * @param <T> type of the element
+ * @param <S> type of the spliterator, returned by {@link #trySplit()}
+ */
+abstract class ChunkedSpliterator<T, S extends Spliterator<T>> implements Spliterator<T> {
+
+    static final int CHARACTERISTICS = SIZED | SUBSIZED | ORDERED | IMMUTABLE | NONNULL;
+
+    protected long from;
+    protected final long to;
+    protected final long minChunk;
+    private final int characteristics;
+
+    ChunkedSpliterator(long from, long to, long minChunk) {
+        this(from, to, minChunk, CHARACTERISTICS);
+    }
+
+    ChunkedSpliterator(long from, long to, long minChunk, int characteristics) {
+        if (from > to) {
+            throw new IllegalArgumentException("from " + from + " is after to " + to);
+        }
+        if (minChunk <= 0) {
+            throw new IllegalArgumentException("minChunk must be positive: " + minChunk);
+        }
+        this.from = from;
+        this.to = to;
+        this.minChunk = minChunk;
+        this.characteristics = characteristics;
+    }
+
+    /**
+     * @return spliterator of {@code [from, to)} with the same source and minChunk
+     */
+    protected abstract S slice(long from, long to);
+
+    @Override
+    public S trySplit() {
+        long remaining = to - from;
+        if (remaining < 2 * minChunk) {
+            return null;
+        }
+        long middle = from + (remaining >>> 1);
+        S prefix = slice(from, middle);
+        from = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+}
@@ -0,0 +1,42 @@
+package setianjay.stream.source;
+
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Chunked spliterator over a {@code double[]}.
+ */
+final class DoubleArraySpliterator extends ChunkedSpliterator<Double, Spliterator.OfDouble>
+        implements Spliterator.OfDouble {
+
+    private final double[] array;
+
+    DoubleArraySpliterator(double[] array, int from, int to, int minChunk) {
+        super(from, to, minChunk);
+        this.array = array;
+    }
+
+    @Override
+    protected Spliterator.OfDouble slice(long from, long to) {
+        return new DoubleArraySpliterator(array, (int) from, (int) to, (int) minChunk);
+    }
+
+    @Override
+    public boolean tryAdvance(DoubleConsumer action) {
+        if (from >= to) {
+            return false;
+        }
+        action.accept(array[(int) from++]);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(DoubleConsumer action) {
+        double[] array = this.array;
+        int end = (int) to;
+        for (int i = (int) from; i < end; i++) {
+            action.accept(array[i]);
+        }
+        from = end;
+    }
+}
@@ -0,0 +1,48 @@
+package setianjay.stream.source;
+
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Chunked spliterator over a {@code int[]}.
+ */
+final class IntArraySpliterator extends ChunkedSpliterator<Integer, Spliterator.OfInt> implements Spliterator.OfInt {
+
+    private final int[] array;
+
+    IntArraySpliterator(int[] array, int from, int to, int minChunk) {
+        this(array, from, to, minChunk, CHARACTERISTICS);
+    }
+
+    /**
+     * @param characteristics without IMMUTABLE when the array is the buffer of a mutable list
+     */
+    IntArraySpliterator(int[] array, int from, int to, int minChunk, int characteristics) {
+        super(from, to, minChunk, characteristics);
+        this.array = array;
+    }
+
+    @Override
+    protected Spliterator.OfInt slice(long from, long to) {
+        return new IntArraySpliterator(array, (int) from, (int) to, (int) minChunk, characteristics());
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+        if (from >= to) {
+            return false;
+        }
+        action.accept(array[(int) from++]);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+        int[] array = this.array;
+        int end = (int) to;
+        for (int i = (int) from; i < end; i++) {
+            action.accept(array[i]);
+        }
+        from = end;
+    }
+}
@@ -0,0 +1,154 @@
+package setianjay.stream.source;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the lines of the bytes {@code [from, to)} of a file, read through a memory mapping. A split cuts
+ * near the middle and moves the cut after the next {@code '\n'}, so a line is never shared by two splits and every
+ * split can be read without the others. The lines are {@link ByteSlice} of the mapping, the line terminator
+ * ({@code "\n"} or {@code "\r\n"}) is not included.
+ */
+final class LineSpliterator implements Spliterator<ByteSlice> {
+
+    private static final int SCAN_SIZE = 8 * 1024;
+
+    private final FileChannel channel;
+    private long from;
+    private final long to;
+    private final long minChunk;
+    private final int windowSize;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int position;
+
+    LineSpliterator(FileChannel channel, long from, long to, long minChunk, int windowSize) {
+        if (minChunk <= 0) {
+            throw new IllegalArgumentException("minChunk must be positive: " + minChunk);
+        }
+        this.channel = channel;
+        this.from = from;
+        this.to = to;
+        this.minChunk = minChunk;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ByteSlice> action) {
+        ByteSlice line = nextLine();
+        if (line == null) {
+            return false;
+        }
+        action.accept(line);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super ByteSlice> action) {
+        for (ByteSlice line = nextLine(); line != null; line = nextLine()) {
+            action.accept(line);
+        }
+    }
+
+    private ByteSlice nextLine() {
+        while (from < to) {
+            if (window == null) {
+                map();
+            }
+            int limit = window.limit();
+            for (int i = position; i < limit; i++) {
+                if (window.get(i) == '\n') {
+                    ByteSlice line = slice(position, i);
+                    position = i + 1;
+                    from = windowStart + position;
+                    return line;
+                }
+            }
+            if (windowStart + limit == to) {
+                // the last line without a terminator
+                ByteSlice line = slice(position, limit);
+                from = to;
+                return line;
+            }
+            if (position == 0) {
+                throw new IllegalStateException("line at byte " + from + " is longer than " + windowSize + " bytes");
+            }
+            // the line continues after the window, map again from the start of the line
+            window = null;
+        }
+        return null;
+    }
+
+    private ByteSlice slice(int start, int end) {
+        if (end > start && window.get(end - 1) == '\r') {
+            end--;
+        }
+        return new ByteSlice(window, start, end - start);
+    }
+
+    private void map() {
+        try {
+            windowStart = from;
+            position = 0;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(to - from, windowSize));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Spliterator<ByteSlice> trySplit() {
+        if (window != null || to - from < 2 * minChunk) {
+            return null;
+        }
+        long cut = nextLineStart(from + (to - from) / 2);
+        if (cut <= from || cut >= to) {
+            return null;
+        }
+        LineSpliterator prefix = new LineSpliterator(channel, from, cut, minChunk, windowSize);
+        from = cut;
+        return prefix;
+    }
+
+    // the position after the first '\n' from the given position, or to if there is none
+    private long nextLineStart(long position) {
+        try {
+            ByteBuffer scan = ByteBuffer.allocate(SCAN_SIZE);
+            while (position < to) {
+                scan.clear().limit((int) Math.min(SCAN_SIZE, to - position));
+                int read = channel.read(scan, position);
+                if (read <= 0) {
+                    return to;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (scan.get(i) == '\n') {
+                        return position + i + 1;
+                    }
+                }
+                position += read;
+            }
+            return to;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the remaining bytes, the number of lines is not known before the lines are read
+     */
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+}
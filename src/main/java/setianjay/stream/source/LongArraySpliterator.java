@@ -0,0 +1,48 @@
+package setianjay.stream.source;
+
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Chunked spliterator over a {@code long[]}.
+ */
+final class LongArraySpliterator extends ChunkedSpliterator<Long, Spliterator.OfLong> implements Spliterator.OfLong {
+
+    private final long[] array;
+
+    LongArraySpliterator(long[] array, int from, int to, int minChunk) {
+        this(array, from, to, minChunk, CHARACTERISTICS);
+    }
+
+    /**
+     * @param characteristics without IMMUTABLE when the array is the buffer of a mutable list
+     */
+    LongArraySpliterator(long[] array, int from, int to, int minChunk, int characteristics) {
+        super(from, to, minChunk, characteristics);
+        this.array = array;
+    }
+
+    @Override
+    protected Spliterator.OfLong slice(long from, long to) {
+        return new LongArraySpliterator(array, (int) from, (int) to, (int) minChunk, characteristics());
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+        if (from >= to) {
+            return false;
+        }
+        action.accept(array[(int) from++]);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+        long[] array = this.array;
+        int end = (int) to;
+        for (int i = (int) from; i < end; i++) {
+            action.accept(array[i]);
+        }
+        from = end;
+    }
+}
@@ -0,0 +1,48 @@
+package setianjay.stream.source;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Chunked spliterator over the numbers of {@code [from, to)}.
+ */
+final class LongRangeSpliterator extends ChunkedSpliterator<Long, Spliterator.OfLong> implements Spliterator.OfLong {
+
+    LongRangeSpliterator(long from, long to, long minChunk) {
+        super(from, to, minChunk);
+    }
+
+    @Override
+    protected Spliterator.OfLong slice(long from, long to) {
+        return new LongRangeSpliterator(from, to, minChunk);
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+        if (from >= to) {
+            return false;
+        }
+        action.accept(from++);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+        long end = to;
+        for (long i = from; i < end; i++) {
+            action.accept(i);
+        }
+        from = end;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS | DISTINCT | SORTED;
+    }
+
+    @Override
+    public Comparator<? super Long> getComparator() {
+        return null;
+    }
+}
@@ -0,0 +1,73 @@
+package setianjay.stream.source;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Chunked spliterator over a binary file of big endian {@code int}, the element {@code i} is at byte {@code 4 * i}.
+ * Every split maps only its own part of the file, in windows of at most {@link #WINDOW_ELEMENTS} elements, when it is
+ * traversed.
+ */
+final class MappedIntSpliterator extends ChunkedSpliterator<Integer, Spliterator.OfInt> implements Spliterator.OfInt {
+
+    static final long WINDOW_ELEMENTS = 1L << 26;
+
+    private final FileChannel channel;
+    private IntBuffer window;
+    private long windowStart;
+    private long windowEnd;
+
+    MappedIntSpliterator(FileChannel channel, long from, long to, long minChunk) {
+        super(from, to, minChunk);
+        this.channel = channel;
+    }
+
+    @Override
+    protected Spliterator.OfInt slice(long from, long to) {
+        return new MappedIntSpliterator(channel, from, to, minChunk);
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+        if (from >= to) {
+            return false;
+        }
+        if (window == null || from >= windowEnd) {
+            map();
+        }
+        // absolute read, a split moves from after the window is mapped
+        action.accept(window.get((int) (from - windowStart)));
+        from++;
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+        while (from < to) {
+            if (window == null || from >= windowEnd) {
+                map();
+            }
+            IntBuffer window = this.window;
+            for (int i = (int) (from - windowStart), end = (int) (windowEnd - windowStart); i < end; i++) {
+                action.accept(window.get(i));
+            }
+            from = windowEnd;
+        }
+    }
+
+    // map the window of the file from the current element, the window start after the split so it is not shared
+    private void map() {
+        try {
+            windowStart = from;
+            windowEnd = Math.min(to, from + WINDOW_ELEMENTS);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, from * Integer.BYTES,
+                    (windowEnd - from) * Integer.BYTES).asIntBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package setianjay.stream.source;
+
+import setianjay.stream.spill.Serializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Chunked spliterator over a file of fixed width records, the record {@code i} is at byte {@code recordSize * i} and
+ * read by the serializer from a memory mapping.
+ *
+ * @param <T> type of the record
+ */
+final class MappedRecordSpliterator<T> extends ChunkedSpliterator<T, Spliterator<T>> {
+
+    private final FileChannel channel;
+    private final int recordSize;
+    private final Serializer<T> serializer;
+    private final long windowRecords;
+    private ByteBuffer window;
+    private long windowStart;
+    private long windowEnd;
+
+    MappedRecordSpliterator(FileChannel channel, int recordSize, Serializer<T> serializer, long from, long to,
+                            long minChunk, int windowSize) {
+        super(from, to, minChunk);
+        this.channel = channel;
+        this.recordSize = recordSize;
+        this.serializer = serializer;
+        this.windowRecords = Math.max(1, windowSize / recordSize);
+    }
+
+    @Override
+    protected Spliterator<T> slice(long from, long to) {
+        return new MappedRecordSpliterator<>(channel, recordSize, serializer, from, to, minChunk,
+                (int) (windowRecords * recordSize));
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (from >= to) {
+            return false;
+        }
+        action.accept(read());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        while (from < to) {
+            action.accept(read());
+        }
+    }
+
+    private T read() {
+        if (window == null || from >= windowEnd) {
+            map();
+        }
+        window.position((int) ((from - windowStart) * recordSize));
+        from++;
+        return serializer.read(window);
+    }
+
+    private void map() {
+        try {
+            windowStart = from;
+            windowEnd = Math.min(to, from + windowRecords);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, from * recordSize,
+                    (windowEnd - from) * recordSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
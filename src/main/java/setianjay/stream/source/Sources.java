@@ -0,0 +1,202 @@
+package setianjay.stream.source;
+
+import setianjay.stream.collector.IntList;
+import setianjay.stream.collector.LongList;
+import setianjay.stream.spill.Serializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Stream sources that split evenly on a parallel stream. {@code Stream.builder()} and the {@code Iterator} based
+ * sources do not know their size or split in unequal batches, so some cores sit idle. The sources here report the
+ * exact size (SIZED and SUBSIZED), always split in half and never split below {@code minChunk} elements.
+ *
+ * <pre>{@code
+ * long even = Sources.stream(numbers, 4096).parallel().filter(number -> number % 2 == 0).count();
+ * }</pre>
+ */
+public final class Sources {
+
+    /**
+     * Below this size the cost of a fork join task is bigger than the work of a cheap pipeline.
+     */
+    public static final int DEFAULT_MIN_CHUNK = 1 << 10;
+
+    /**
+     * The minimum bytes of a split of a file, 1 MB.
+     */
+    public static final int DEFAULT_MIN_FILE_CHUNK = 1 << 20;
+
+    /**
+     * The size of a memory mapping of a file, a line must not be longer than this.
+     */
+    static final int WINDOW_SIZE = 1 << 28;
+
+    private static final int MUTABLE_CHARACTERISTICS = ChunkedSpliterator.CHARACTERISTICS & ~Spliterator.IMMUTABLE;
+
+    private Sources() {
+    }
+
+    public static IntStream stream(int[] array) {
+        return stream(array, DEFAULT_MIN_CHUNK);
+    }
+
+    public static IntStream stream(int[] array, int minChunk) {
+        return StreamSupport.intStream(new IntArraySpliterator(array, 0, array.length, minChunk), false);
+    }
+
+    public static LongStream stream(long[] array) {
+        return stream(array, DEFAULT_MIN_CHUNK);
+    }
+
+    public static LongStream stream(long[] array, int minChunk) {
+        return StreamSupport.longStream(new LongArraySpliterator(array, 0, array.length, minChunk), false);
+    }
+
+    public static DoubleStream stream(double[] array) {
+        return stream(array, DEFAULT_MIN_CHUNK);
+    }
+
+    public static DoubleStream stream(double[] array, int minChunk) {
+        return StreamSupport.doubleStream(new DoubleArraySpliterator(array, 0, array.length, minChunk), false);
+    }
+
+    /**
+     * The content of the buffer when the stream is created, the buffer must not be changed while the stream runs.
+     * The buffer is mutable, so the stream does not report IMMUTABLE.
+     */
+    public static IntStream stream(IntList buffer, int minChunk) {
+        return StreamSupport.intStream(new IntArraySpliterator(buffer.elements(), 0, buffer.size(), minChunk,
+                MUTABLE_CHARACTERISTICS), false);
+    }
+
+    /**
+     * The content of the buffer when the stream is created, the buffer must not be changed while the stream runs.
+     * The buffer is mutable, so the stream does not report IMMUTABLE.
+     */
+    public static LongStream stream(LongList buffer, int minChunk) {
+        return StreamSupport.longStream(new LongArraySpliterator(buffer.elements(), 0, buffer.size(), minChunk,
+                MUTABLE_CHARACTERISTICS), false);
+    }
+
+    /**
+     * @return the numbers of {@code [from, to)}
+     */
+    public static LongStream range(long from, long to, long minChunk) {
+        return StreamSupport.longStream(new LongRangeSpliterator(from, to, minChunk), false);
+    }
+
+    /**
+     * A binary file of big endian {@code int} (for example written with {@code DataOutputStream.writeInt}), read
+     * through a memory mapping. Close the stream to close the file.
+     */
+    public static IntStream mappedInts(Path file, int minChunk) {
+        FileChannel channel = open(file);
+        try {
+            long elements = size(channel) / Integer.BYTES;
+            return StreamSupport.intStream(new MappedIntSpliterator(channel, 0, elements, minChunk), false)
+                    .onClose(() -> close(channel));
+        } catch (RuntimeException e) {
+            close(channel);
+            throw e;
+        }
+    }
+
+    public static Stream<ByteSlice> lines(Path file) {
+        return lines(file, DEFAULT_MIN_FILE_CHUNK);
+    }
+
+    /**
+     * The lines of a text file, read through a memory mapping and split on the line boundaries for a parallel
+     * stream. Unlike {@code Files.lines} no string is created for a line, a line is a view of the bytes of the file.
+     * Close the stream to close the file.
+     *
+     * <pre>{@code
+     * try (Stream<ByteSlice> lines = Sources.lines(Path.of("access.log"))) {
+     *     Map<ByteSlice, Long> hits = lines.parallel()
+     *             .collect(Collectors.groupingByConcurrent(line -> line.field(0, (byte) ' '), Collectors.counting()));
+     * }
+     * }</pre>
+     *
+     * @param minChunk minimum bytes of a split
+     */
+    public static Stream<ByteSlice> lines(Path file, long minChunk) {
+        return lines(file, minChunk, WINDOW_SIZE);
+    }
+
+    static Stream<ByteSlice> lines(Path file, long minChunk, int windowSize) {
+        FileChannel channel = open(file);
+        try {
+            return StreamSupport.stream(new LineSpliterator(channel, 0, size(channel), minChunk, windowSize), false)
+                    .onClose(() -> close(channel));
+        } catch (RuntimeException e) {
+            close(channel);
+            throw e;
+        }
+    }
+
+    /**
+     * A binary file of fixed width records, every {@code recordSize} bytes is read by the serializer from a memory
+     * mapping. Close the stream to close the file.
+     *
+     * @param minChunk minimum records of a split
+     * @throws IllegalArgumentException if the size of the file is not a multiple of the record size
+     */
+    public static <T> Stream<T> records(Path file, int recordSize, Serializer<T> serializer, int minChunk) {
+        return records(file, recordSize, serializer, minChunk, WINDOW_SIZE);
+    }
+
+    static <T> Stream<T> records(Path file, int recordSize, Serializer<T> serializer, int minChunk, int windowSize) {
+        if (recordSize <= 0) {
+            throw new IllegalArgumentException("recordSize must be positive: " + recordSize);
+        }
+        FileChannel channel = open(file);
+        try {
+            long size = size(channel);
+            if (size % recordSize != 0) {
+                throw new IllegalArgumentException("size of " + file + " is " + size
+                        + " bytes, not a multiple of the record size " + recordSize);
+            }
+            MappedRecordSpliterator<T> spliterator = new MappedRecordSpliterator<>(channel, recordSize, serializer,
+                    0, size / recordSize, minChunk, windowSize);
+            return StreamSupport.stream(spliterator, false).onClose(() -> close(channel));
+        } catch (RuntimeException e) {
+            close(channel);
+            throw e;
+        }
+    }
+
+    private static FileChannel open(Path file) {
+        try {
+            return FileChannel.open(file, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long size(FileChannel channel) {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void close(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
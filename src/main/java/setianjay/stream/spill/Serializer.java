@@ -0,0 +1,78 @@
+package setianjay.stream.spill;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Write and read a value to and from a {@link ByteBuffer}, used to spill the elements of a stream to a
+ * {@link SpillFile}.
+ *
+ * @param <T> type of the value
+ */
+public interface Serializer<T> {
+
+    /**
+     * Write the value at the position of the buffer.
+     *
+     * @throws BufferOverflowException if the value does not fit in the remaining of the buffer, the caller will
+     *                                 retry with more space
+     */
+    void write(T value, ByteBuffer buffer);
+
+    /**
+     * Read a value written by {@link #write(Object, ByteBuffer)} at the position of the buffer.
+     */
+    T read(ByteBuffer buffer);
+
+    static Serializer<Integer> ints() {
+        return new Serializer<>() {
+            @Override
+            public void write(Integer value, ByteBuffer buffer) {
+                buffer.putInt(value);
+            }
+
+            @Override
+            public Integer read(ByteBuffer buffer) {
+                return buffer.getInt();
+            }
+        };
+    }
+
+    static Serializer<Long> longs() {
+        return new Serializer<>() {
+            @Override
+            public void write(Long value, ByteBuffer buffer) {
+                buffer.putLong(value);
+            }
+
+            @Override
+            public Long read(ByteBuffer buffer) {
+                return buffer.getLong();
+            }
+        };
+    }
+
+    /**
+     * UTF-8 string with the length of the bytes as prefix.
+     */
+    static Serializer<String> strings() {
+        return new Serializer<>() {
+            @Override
+            public void write(String value, ByteBuffer buffer) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                if (buffer.remaining() < Integer.BYTES + bytes.length) {
+                    throw new BufferOverflowException();
+                }
+                buffer.putInt(bytes.length).put(bytes);
+            }
+
+            @Override
+            public String read(ByteBuffer buffer) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+}
@@ -0,0 +1,187 @@
+package setianjay.stream.spill;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Temporary file of serialized values. The values are appended through a direct buffer and a {@link FileChannel},
+ * then read back through a memory mapped window of the file, so reading does not copy the file into the heap.
+ * The file is deleted on {@link #close()}.
+ *
+ * @param <T> type of the value
+ */
+public final class SpillFile<T> implements AutoCloseable {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final long READ_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final Path path;
+    private final Serializer<T> serializer;
+    private final long readWindowSize;
+    private FileChannel channel;
+    private ByteBuffer writeBuffer;
+    private long count;
+    private long size;
+
+    private SpillFile(Path path, Serializer<T> serializer, long readWindowSize) throws IOException {
+        this.path = path;
+        this.serializer = serializer;
+        this.readWindowSize = readWindowSize;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    }
+
+    /**
+     * @param directory the directory of the temporary file, or null for the default temporary directory
+     */
+    public static <T> SpillFile<T> create(Path directory, Serializer<T> serializer) {
+        return create(directory, serializer, READ_WINDOW_SIZE);
+    }
+
+    // the read window is only smaller in the tests, to read values longer than the window
+    static <T> SpillFile<T> create(Path directory, Serializer<T> serializer, long readWindowSize) {
+        try {
+            Path path = directory == null
+                    ? Files.createTempFile("stream-spill-", ".bin")
+                    : Files.createTempFile(directory, "stream-spill-", ".bin");
+            return new SpillFile<>(path, serializer, readWindowSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void append(T value) {
+        while (true) {
+            int start = writeBuffer.position();
+            try {
+                serializer.write(value, writeBuffer);
+                count++;
+                return;
+            } catch (BufferOverflowException e) {
+                writeBuffer.position(start);
+                if (start == 0) {
+                    // the value does not fit even in an empty buffer
+                    writeBuffer = ByteBuffer.allocateDirect(writeBuffer.capacity() * 2);
+                } else {
+                    flush();
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the buffered values to the file.
+     */
+    public void flush() {
+        try {
+            writeBuffer.flip();
+            while (writeBuffer.hasRemaining()) {
+                size += channel.write(writeBuffer, size);
+            }
+            writeBuffer.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @return size of the file in bytes, without the values that are still buffered
+     */
+    public long size() {
+        return size;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Flush the buffered values and read all values from the start of the file. The file must not be appended while
+     * it is read.
+     */
+    public Iterator<T> iterator() {
+        flush();
+        return new Iterator<>() {
+            private long remaining = count;
+            private long windowSize = readWindowSize;
+            private long windowStart;
+            private MappedByteBuffer window;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public T next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                if (window == null) {
+                    map(0);
+                }
+
+                while (true) {
+                    int start = window.position();
+                    try {
+                        T value = serializer.read(window);
+                        remaining--;
+                        return value;
+                    } catch (BufferUnderflowException e) {
+                        // the value cross the end of the window, map the next window from the start of the value
+                        long position = windowStart + start;
+                        if (windowStart + window.limit() >= size) {
+                            throw new IllegalStateException("corrupted spill file " + path + " at " + position, e);
+                        }
+                        if (start == 0) {
+                            // the value is longer than the whole window, grow the window up to the limit of a buffer
+                            if (windowSize == Integer.MAX_VALUE) {
+                                throw new IllegalStateException("value longer than " + Integer.MAX_VALUE
+                                        + " bytes in spill file " + path + " at " + position, e);
+                            }
+                            windowSize = Math.min(windowSize * 2, Integer.MAX_VALUE);
+                        }
+                        map(position);
+                    }
+                }
+            }
+
+            private void map(long position) {
+                try {
+                    windowStart = position;
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(windowSize, size - position));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package setianjay.stream.transform;
+
+import java.util.Objects;
+import java.util.function.*;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Ready made functions for {@code mapMulti}, to expand an element into zero, one or a few elements. Unlike
+ * {@code flatMap(element -> Stream.of(...))} no stream, array or collection is created for every element, the
+ * results are pushed straight to the next stage.
+ *
+ * <pre>{@code
+ * // the same with flatMap(name -> Stream.of(name.toUpperCase(), name.toLowerCase()))
+ * List<String> names = stream.<String>mapMulti(Expanders.of(String::toUpperCase, String::toLowerCase)).toList();
+ *
+ * // the same with flatMapToInt(CharSequence::chars)
+ * IntStream characters = stream.mapMultiToInt(Expanders.chars(Function.identity()));
+ * }</pre>
+ */
+public final class Expanders {
+
+    private Expanders() {
+    }
+
+    /**
+     * Zero or one element, the result of the mapper if it is not null.
+     */
+    public static <T, R> BiConsumer<T, Consumer<R>> ofNullable(Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(mapper);
+        return (element, downstream) -> {
+            R result = mapper.apply(element);
+            if (result != null) {
+                downstream.accept(result);
+            }
+        };
+    }
+
+    public static <T, R> BiConsumer<T, Consumer<R>> of(Function<? super T, ? extends R> first,
+                                                      Function<? super T, ? extends R> second) {
+        Objects.requireNonNull(first);
+        Objects.requireNonNull(second);
+        return (element, downstream) -> {
+            downstream.accept(first.apply(element));
+            downstream.accept(second.apply(element));
+        };
+    }
+
+    /**
+     * One element for every mapper, in the order of the mappers.
+     */
+    @SafeVarargs
+    public static <T, R> BiConsumer<T, Consumer<R>> of(Function<? super T, ? extends R>... mappers) {
+        Function<? super T, ? extends R>[] copy = requireNonNull(mappers.clone());
+        return (element, downstream) -> {
+            for (Function<? super T, ? extends R> mapper : copy) {
+                downstream.accept(mapper.apply(element));
+            }
+        };
+    }
+
+    /**
+     * The elements of the iterable returned by the mapper, for example a collection field of the element.
+     */
+    public static <T, R> BiConsumer<T, Consumer<R>> flattening(
+            Function<? super T, ? extends Iterable<? extends R>> mapper) {
+        Objects.requireNonNull(mapper);
+        return (element, downstream) -> {
+            for (R result : mapper.apply(element)) {
+                downstream.accept(result);
+            }
+        };
+    }
+
+    /**
+     * The characters of the text returned by the mapper, for {@code mapMultiToInt}.
+     */
+    public static <T> BiConsumer<T, IntConsumer> chars(Function<? super T, ? extends CharSequence> mapper) {
+        Objects.requireNonNull(mapper);
+        return (element, downstream) -> {
+            CharSequence text = mapper.apply(element);
+            for (int i = 0, length = text.length(); i < length; i++) {
+                downstream.accept(text.charAt(i));
+            }
+        };
+    }
+
+    /**
+     * One {@code int} for every mapper, for {@code mapMultiToInt}.
+     */
+    @SafeVarargs
+    public static <T> BiConsumer<T, IntConsumer> toInts(ToIntFunction<? super T>... mappers) {
+        ToIntFunction<? super T>[] copy = requireNonNull(mappers.clone());
+        return (element, downstream) -> {
+            for (ToIntFunction<? super T> mapper : copy) {
+                downstream.accept(mapper.applyAsInt(element));
+            }
+        };
+    }
+
+    /**
+     * One {@code long} for every mapper, for {@code mapMultiToLong}.
+     */
+    @SafeVarargs
+    public static <T> BiConsumer<T, LongConsumer> toLongs(ToLongFunction<? super T>... mappers) {
+        ToLongFunction<? super T>[] copy = requireNonNull(mappers.clone());
+        return (element, downstream) -> {
+            for (ToLongFunction<? super T> mapper : copy) {
+                downstream.accept(mapper.applyAsLong(element));
+            }
+        };
+    }
+
+    /**
+     * One {@code int} for every mapper, for {@code IntStream.mapMulti}.
+     */
+    public static IntStream.IntMapMultiConsumer ints(IntUnaryOperator... mappers) {
+        IntUnaryOperator[] copy = requireNonNull(mappers.clone());
+        return (element, downstream) -> {
+            for (IntUnaryOperator mapper : copy) {
+                downstream.accept(mapper.applyAsInt(element));
+            }
+        };
+    }
+
+    /**
+     * The element repeated {@code times(element)} times, zero or negative is none, for {@code IntStream.mapMulti}.
+     */
+    public static IntStream.IntMapMultiConsumer repeat(IntUnaryOperator times) {
+        Objects.requireNonNull(times);
+        return (element, downstream) -> {
+            for (int i = times.applyAsInt(element); i > 0; i--) {
+                downstream.accept(element);
+            }
+        };
+    }
+
+    /**
+     * One {@code long} for every mapper, for {@code LongStream.mapMulti}.
+     */
+    public static LongStream.LongMapMultiConsumer longs(LongUnaryOperator... mappers) {
+        LongUnaryOperator[] copy = requireNonNull(mappers.clone());
+        return (element, downstream) -> {
+            for (LongUnaryOperator mapper : copy) {
+                downstream.accept(mapper.applyAsLong(element));
+            }
+        };
+    }
+
+    private static <F> F[] requireNonNull(F[] mappers) {
+        for (F mapper : mappers) {
+            Objects.requireNonNull(mapper);
+        }
+        return mappers;
+    }
+}
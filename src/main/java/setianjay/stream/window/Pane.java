@@ -0,0 +1,33 @@
+package setianjay.stream.window;
+
+/**
+ * The count, sum, min and max of some values, the partial aggregate of a pane (one slide of time) or of some panes
+ * together.
+ */
+final class Pane {
+
+    long count;
+    double sum;
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+
+    void add(double value) {
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    void addAll(Pane other) {
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    Pane copy() {
+        Pane copy = new Pane();
+        copy.addAll(this);
+        return copy;
+    }
+}
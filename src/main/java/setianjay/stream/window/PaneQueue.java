@@ -0,0 +1,51 @@
+package setianjay.stream.window;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * FIFO queue of panes with the aggregate of all of them in O(1) amortized, with two stacks. The new panes are pushed
+ * on the back stack that keeps the aggregate of all its panes. The old panes are popped from the front stack, where
+ * every entry keeps the aggregate of itself and all the newer entries of the front stack. When the front stack is
+ * empty the back stack is moved to it, so every pane is moved once. Min and max can not be subtracted when a pane is
+ * evicted, the two stacks do not need it.
+ */
+final class PaneQueue {
+
+    private final Deque<Pane> front = new ArrayDeque<>();
+    private final Deque<Pane> back = new ArrayDeque<>();
+    private Pane backAggregate = new Pane();
+
+    int size() {
+        return front.size() + back.size();
+    }
+
+    void push(Pane pane) {
+        back.push(pane);
+        backAggregate.addAll(pane);
+    }
+
+    void pop() {
+        if (front.isEmpty()) {
+            // the newest pane is at the top of the back stack, so it is moved first to the bottom of the front stack
+            Pane aggregate = new Pane();
+            while (!back.isEmpty()) {
+                aggregate.addAll(back.pop());
+                front.push(aggregate.copy());
+            }
+            backAggregate = new Pane();
+        }
+        front.pop();
+    }
+
+    /**
+     * @return the aggregate of all the panes in the queue
+     */
+    Pane aggregate() {
+        Pane aggregate = backAggregate.copy();
+        if (!front.isEmpty()) {
+            aggregate.addAll(front.peek());
+        }
+        return aggregate;
+    }
+}
@@ -0,0 +1,142 @@
+package setianjay.stream.window;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * The state of a {@link WindowedAggregation} over a feed of events, created by
+ * {@link WindowedAggregation#start(Consumer)}. Not thread safe, the events of a feed are accepted one by one.
+ *
+ * @param <T> type of the event
+ * @param <K> type of the key
+ */
+public final class WindowAggregator<T, K> implements Consumer<T> {
+
+    private final long slide;
+    private final int panesPerWindow;
+    private final ToLongFunction<? super T> timestamp;
+    private final Function<? super T, ? extends K> classifier;
+    private final ToDoubleFunction<? super T> value;
+    private Consumer<? super WindowResult<K>> listener;
+
+    // the keys with at least one value in the panes of the last window, in the order of their first value
+    private final Map<K, KeyWindow> keys = new LinkedHashMap<>();
+    // index of the open pane, the pane i is [i * slide, (i + 1) * slide)
+    private long pane;
+    private boolean started;
+    private long lateEvents;
+
+    WindowAggregator(long size, long slide, ToLongFunction<? super T> timestamp,
+                     Function<? super T, ? extends K> classifier, ToDoubleFunction<? super T> value,
+                     Consumer<? super WindowResult<K>> listener) {
+        this.slide = slide;
+        this.panesPerWindow = Math.toIntExact(size / slide);
+        this.timestamp = timestamp;
+        this.classifier = classifier;
+        this.value = value;
+        this.listener = listener;
+    }
+
+    WindowAggregator<T, K> listener(Consumer<? super WindowResult<K>> listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Add the event to the open pane of its key, the windows before the pane of the event are closed first.
+     */
+    @Override
+    public void accept(T event) {
+        long eventPane = Math.floorDiv(timestamp.applyAsLong(event), slide);
+        if (!started) {
+            pane = eventPane;
+            started = true;
+        }
+        if (eventPane < pane) {
+            lateEvents++;
+            return;
+        }
+        closeUntil(eventPane);
+        keys.computeIfAbsent(classifier.apply(event), key -> new KeyWindow()).open.add(value.applyAsDouble(event));
+    }
+
+    /**
+     * Close the windows that end at or before the timestamp, for example on a clock tick when there is no event.
+     */
+    public void advanceTo(long timestamp) {
+        if (started) {
+            closeUntil(Math.floorDiv(timestamp, slide));
+        }
+    }
+
+    /**
+     * Close all the windows with a value, at the end of the feed.
+     */
+    public void flush() {
+        while (!keys.isEmpty()) {
+            closePane();
+        }
+    }
+
+    /**
+     * @return the events dropped because their window is already closed
+     */
+    public long lateEvents() {
+        return lateEvents;
+    }
+
+    private void closeUntil(long eventPane) {
+        while (pane < eventPane) {
+            if (keys.isEmpty()) {
+                // nothing to close in the gap
+                pane = eventPane;
+                return;
+            }
+            closePane();
+        }
+    }
+
+    // close the open pane, every window that ends with this pane is complete
+    private void closePane() {
+        long end = (pane + 1) * slide;
+        long start = end - panesPerWindow * slide;
+        Iterator<Map.Entry<K, KeyWindow>> iterator = keys.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, KeyWindow> entry = iterator.next();
+            Pane window = entry.getValue().slide(panesPerWindow);
+            if (window.count == 0) {
+                // no value of the key in the last window, forget the key until its next value
+                iterator.remove();
+            } else {
+                listener.accept(new WindowResult<>(entry.getKey(), start, end, window.count, window.sum, window.min,
+                        window.max));
+            }
+        }
+        pane++;
+    }
+
+    private static final class KeyWindow {
+
+        private final PaneQueue panes = new PaneQueue();
+        private Pane open = new Pane();
+
+        /**
+         * Move the open pane into the window, evict the oldest pane if the window is full.
+         *
+         * @return the aggregate of the window
+         */
+        Pane slide(int panesPerWindow) {
+            panes.push(open);
+            open = new Pane();
+            if (panes.size() > panesPerWindow) {
+                panes.pop();
+            }
+            return panes.aggregate();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package setianjay.stream.window;
+
+/**
+ * The aggregates of the values of a key in the window {@code [start, end)}.
+ *
+ * @param <K> type of the key
+ */
+public record WindowResult<K>(K key, long start, long end, long count, double sum, double min, double max) {
+
+    public double average() {
+        return sum / count;
+    }
+}
@@ -0,0 +1,135 @@
+package setianjay.stream.window;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Count, sum, min, max and average of a value by key, over tumbling or sliding windows of an unbounded stream of
+ * events. The windows are cut in panes of one slide, every event is added to the pane of its key in O(1), and a
+ * window is the aggregate of its last {@code size / slide} panes, kept in a two stacks queue so a slide costs O(1)
+ * amortized for every key. The events of a window are never read again.
+ *
+ * <pre>{@code
+ * // the total of every customer every minute, updated every 10 seconds
+ * WindowedAggregation<Order, String> orders = WindowedAggregation.sliding(60_000, 10_000,
+ *         Order::timestamp, Order::customer, Order::amount);
+ * orders.apply(feed).forEach(result -> dashboard.update(result.key(), result.sum()));
+ * }</pre>
+ *
+ * <p>The timestamps and the sizes are in the same unit, for example milliseconds. The events must come in the order of
+ * their pane: an event of a pane that is already closed is late, it is dropped and counted by
+ * {@link WindowAggregator#lateEvents()}.
+ *
+ * @param <T> type of the event
+ * @param <K> type of the key
+ */
+public final class WindowedAggregation<T, K> {
+
+    private final long size;
+    private final long slide;
+    private final ToLongFunction<? super T> timestamp;
+    private final Function<? super T, ? extends K> classifier;
+    private final ToDoubleFunction<? super T> value;
+
+    private WindowedAggregation(long size, long slide, ToLongFunction<? super T> timestamp,
+                                Function<? super T, ? extends K> classifier, ToDoubleFunction<? super T> value) {
+        if (slide <= 0 || size <= 0) {
+            throw new IllegalArgumentException("size and slide must be positive: " + size + ", " + slide);
+        }
+        if (size % slide != 0) {
+            throw new IllegalArgumentException("size " + size + " must be a multiple of slide " + slide);
+        }
+        this.size = size;
+        this.slide = slide;
+        this.timestamp = Objects.requireNonNull(timestamp);
+        this.classifier = Objects.requireNonNull(classifier);
+        this.value = Objects.requireNonNull(value);
+    }
+
+    /**
+     * Windows of {@code size} one after another, every event is in one window.
+     */
+    public static <T, K> WindowedAggregation<T, K> tumbling(long size, ToLongFunction<? super T> timestamp,
+                                                            Function<? super T, ? extends K> classifier,
+                                                            ToDoubleFunction<? super T> value) {
+        return new WindowedAggregation<>(size, size, timestamp, classifier, value);
+    }
+
+    /**
+     * Windows of {@code size} that start every {@code slide}, every event is in {@code size / slide} windows.
+     */
+    public static <T, K> WindowedAggregation<T, K> sliding(long size, long slide, ToLongFunction<? super T> timestamp,
+                                                           Function<? super T, ? extends K> classifier,
+                                                           ToDoubleFunction<? super T> value) {
+        return new WindowedAggregation<>(size, slide, timestamp, classifier, value);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long slide() {
+        return slide;
+    }
+
+    /**
+     * @return aggregator of a feed of events, that sends the result of every window to the listener when the
+     * window is closed
+     */
+    public WindowAggregator<T, K> start(Consumer<? super WindowResult<K>> listener) {
+        return new WindowAggregator<>(size, slide, timestamp, classifier, value, Objects.requireNonNull(listener));
+    }
+
+    /**
+     * The results of the windows of the events, lazily: a window is returned as soon as an event after it is read,
+     * and the open windows are returned when the events end. The events are read sequentially, also when the result
+     * is made parallel: the result is never split, so the aggregator is only used by one thread at a time.
+     */
+    public Stream<WindowResult<K>> apply(Stream<? extends T> events) {
+        WindowAggregator<T, K> aggregator = start(result -> {
+        });
+        Stream<WindowResult<K>> windows = events.sequential()
+                .mapMulti((T event, Consumer<WindowResult<K>> downstream) -> aggregator.listener(downstream)
+                        .accept(event));
+        Stream<WindowResult<K>> open = Stream.of(aggregator)
+                .mapMulti((WindowAggregator<T, K> last, Consumer<WindowResult<K>> downstream) -> last
+                        .listener(downstream).flush());
+        return StreamSupport.stream(new Unsplittable<>(Stream.concat(windows, open).spliterator()), false)
+                .onClose(events::close);
+    }
+
+    // the aggregator is not thread safe, a split would flush the open windows while the events are still added
+    private record Unsplittable<R>(Spliterator<R> results) implements Spliterator<R> {
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            return results.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super R> action) {
+            results.forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator<R> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return results.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return results.characteristics();
+        }
+    }
+}
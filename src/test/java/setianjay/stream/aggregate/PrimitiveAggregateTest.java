@@ -0,0 +1,124 @@
+package setianjay.stream.aggregate;
+
+import org.junit.jupiter.api.*;
+
+import java.math.BigInteger;
+import java.util.NoSuchElementException;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Primitive Aggregate")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class PrimitiveAggregateTest {
+
+    private final int[] numbers = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+    @Test
+    @DisplayName(value = "with min")
+    void testMin() {
+        long min = PrimitiveAggregate.of(numbers).min(); // result 1, because 1 is min content in an array
+
+        assertEquals(1, min);
+    }
+
+    @Test
+    @DisplayName(value = "with max")
+    void testMax() {
+        long max = PrimitiveAggregate.of(numbers).max(); // result 10, because 10 is max content in an array
+
+        assertEquals(10, max);
+    }
+
+    @Test
+    @DisplayName(value = "with sum")
+    void testSum() {
+        long result = PrimitiveAggregate.of(numbers).sum(); // sum all value in array
+
+        assertEquals(55, result);
+    }
+
+    @Test
+    @DisplayName(value = "with average")
+    void testAverage() {
+        double result = PrimitiveAggregate.of(numbers).average(); // result is sum content / n = 55 / 10 => 5.5
+
+        assertEquals(5.5, result);
+    }
+
+    @Test
+    @DisplayName(value = "factorial with product")
+    void testFactorial() {
+        PrimitiveAggregate aggregate = PrimitiveAggregate.of(numbers);
+
+        assertTrue(aggregate.isProductExact());
+        assertEquals(3628800, aggregate.productExact());
+    }
+
+    @Test
+    @DisplayName(value = "factorial with product overflow")
+    void testFactorialOverflow() {
+        // 21! is bigger than Long.MAX_VALUE, with reduce(1, (value, item) -> value * item) it silently overflow
+        long[] numbers = LongStream.rangeClosed(1, 21).toArray();
+        PrimitiveAggregate aggregate = PrimitiveAggregate.of(numbers);
+
+        assertFalse(aggregate.isProductExact());
+        assertThrows(ArithmeticException.class, aggregate::productExact);
+        assertEquals(new BigInteger("51090942171709440000"), aggregate.product());
+
+        // 50! overflows many long chunks, multiplied with the product tree at the end of the pass
+        PrimitiveAggregate bigAggregate = PrimitiveAggregate.of(LongStream.rangeClosed(1, 50).toArray());
+        BigInteger factorial = LongStream.rangeClosed(1, 50)
+                .mapToObj(BigInteger::valueOf)
+                .reduce(BigInteger.ONE, BigInteger::multiply);
+        assertEquals(factorial, bigAggregate.product());
+    }
+
+    @Test
+    @DisplayName(value = "factorial with source changed later")
+    void testFactorialSourceChanged() {
+        long[] numbers = LongStream.rangeClosed(1, 30).toArray();
+        PrimitiveAggregate aggregate = PrimitiveAggregate.of(numbers);
+        BigInteger factorial = LongStream.rangeClosed(1, 30)
+                .mapToObj(BigInteger::valueOf)
+                .reduce(BigInteger.ONE, BigInteger::multiply);
+
+        // the product is computed in the pass, not from the source later
+        numbers[25] = 0;
+
+        assertEquals(factorial, aggregate.product());
+    }
+
+    @Test
+    @DisplayName(value = "factorial with zero after overflow")
+    void testFactorialZeroAfterOverflow() {
+        long[] numbers = LongStream.rangeClosed(0, 30).map(number -> 30 - number).toArray(); // {30, 29, ..., 1, 0}
+        PrimitiveAggregate aggregate = PrimitiveAggregate.of(numbers);
+
+        assertTrue(aggregate.isProductExact());
+        assertEquals(0, aggregate.productExact());
+        assertEquals(BigInteger.ZERO, aggregate.product());
+    }
+
+    @Test
+    @DisplayName(value = "with range")
+    void testRange() {
+        PrimitiveAggregate aggregate = PrimitiveAggregate.of(numbers, 2, 5); // only {3, 4, 5}
+
+        assertEquals(3, aggregate.count());
+        assertEquals(3, aggregate.min());
+        assertEquals(5, aggregate.max());
+        assertEquals(60, aggregate.productExact());
+    }
+
+    @Test
+    @DisplayName(value = "without element")
+    void testEmpty() {
+        PrimitiveAggregate aggregate = PrimitiveAggregate.of(new int[0]);
+
+        assertTrue(aggregate.isEmpty());
+        assertThrows(NoSuchElementException.class, aggregate::min);
+        assertEquals(0.0, aggregate.average());
+        assertEquals(1, aggregate.productExact());
+    }
+}
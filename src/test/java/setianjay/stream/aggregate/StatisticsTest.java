@@ -0,0 +1,128 @@
+package setianjay.stream.aggregate;
+
+import org.junit.jupiter.api.*;
+
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Statistics")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class StatisticsTest {
+
+    @Test
+    @DisplayName(value = "from boxed stream")
+    void testFromBoxedStream() {
+        // one pass instead of one stream for every min, max, sum and average
+        Statistics statistics = Stream.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)
+                .collect(Statistics.collector(Integer::doubleValue));
+
+        assertEquals(10, statistics.getCount());
+        assertEquals(1, statistics.getMin());
+        assertEquals(10, statistics.getMax());
+        assertEquals(55, statistics.getSum());
+        assertEquals(5.5, statistics.getMean());
+        assertEquals(8.25, statistics.getVariance(), 1e-9);
+        assertEquals(9.1666666, statistics.getSampleVariance(), 1e-6);
+    }
+
+    @Test
+    @DisplayName(value = "from primitive stream")
+    void testFromPrimitiveStream() {
+        Statistics fromInt = Statistics.of(IntStream.rangeClosed(1, 10));
+        Statistics fromLong = Statistics.of(LongStream.rangeClosed(1, 10));
+        Statistics fromDouble = Statistics.of(DoubleStream.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+
+        assertEquals(5.5, fromInt.getMean());
+        assertEquals(5.5, fromLong.getMean());
+        assertEquals(5.5, fromDouble.getMean());
+    }
+
+    @Test
+    @DisplayName(value = "in parallel")
+    void testParallel() {
+        Statistics sequential = Statistics.of(IntStream.rangeClosed(1, 1_000_000));
+        Statistics parallel = Statistics.of(IntStream.rangeClosed(1, 1_000_000).parallel());
+
+        assertEquals(sequential.getCount(), parallel.getCount());
+        assertEquals(sequential.getSum(), parallel.getSum());
+        assertEquals(sequential.getMin(), parallel.getMin());
+        assertEquals(sequential.getMax(), parallel.getMax());
+        assertEquals(sequential.getMean(), parallel.getMean(), 1e-6);
+        assertEquals(sequential.getVariance(), parallel.getVariance(), 1e-3);
+        assertEquals(sequential.percentile(99), parallel.percentile(99));
+    }
+
+    @Test
+    @DisplayName(value = "with percentile")
+    void testPercentile() {
+        // {-500_000, ..., 500_000}, the median is 0
+        Statistics statistics = Statistics.of(IntStream.rangeClosed(-500_000, 500_000).parallel());
+
+        assertEquals(-500_000, statistics.percentile(0));
+        assertEquals(500_000, statistics.percentile(100));
+        assertEquals(0, statistics.percentile(50));
+        assertEquals(490_000, statistics.percentile(99), 490_000 * Statistics.DEFAULT_RELATIVE_ACCURACY);
+        assertEquals(-250_000, statistics.percentile(25), 250_000 * Statistics.DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    @Test
+    @DisplayName(value = "with infinity")
+    void testInfinity() {
+        Statistics statistics = Statistics.of(
+                DoubleStream.of(1, 2, 3, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY));
+
+        assertEquals(5, statistics.getCount());
+        assertEquals(Double.NEGATIVE_INFINITY, statistics.percentile(0));
+        assertEquals(Double.POSITIVE_INFINITY, statistics.percentile(100));
+        assertEquals(2, statistics.percentile(50), 2 * Statistics.DEFAULT_RELATIVE_ACCURACY);
+        assertEquals(3, statistics.percentile(75), 3 * Statistics.DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    @Test
+    @DisplayName(value = "with index out of range")
+    void testIndexOutOfRange() {
+        // log(1e300) / log(gamma) does not fit in an int, the bucket index is clamped
+        Statistics statistics = new Statistics(1e-12);
+        statistics.accept(1e-200);
+        statistics.accept(1e300);
+        statistics.accept(-1e300);
+
+        assertEquals(3, statistics.getCount());
+        double median = statistics.percentile(50);
+        assertTrue(median >= 1e-200 && median <= 1e300, "median " + median);
+    }
+
+    @Test
+    @DisplayName(value = "with NaN")
+    void testNaN() {
+        Statistics statistics = Statistics.of(DoubleStream.of(1, 2, Double.NaN));
+
+        assertEquals(3, statistics.getCount());
+        assertTrue(Double.isNaN(statistics.getMean()));
+        assertTrue(Double.isNaN(statistics.percentile(50)));
+
+        // NaN is counted by the sketch too, last like Double.compare, so the ranks do not drift
+        QuantileSketch sketch = new QuantileSketch(Statistics.DEFAULT_RELATIVE_ACCURACY);
+        DoubleStream.of(Double.NaN, 1, 2).forEach(sketch::accept);
+        assertEquals(3, sketch.count());
+        assertEquals(1, sketch.quantile(0), Statistics.DEFAULT_RELATIVE_ACCURACY);
+        assertEquals(2, sketch.quantile(0.5), 2 * Statistics.DEFAULT_RELATIVE_ACCURACY);
+        assertTrue(Double.isNaN(sketch.quantile(1)));
+    }
+
+    @Test
+    @DisplayName(value = "without value")
+    void testEmpty() {
+        Statistics statistics = Statistics.of(IntStream.empty());
+
+        assertEquals(0, statistics.getCount());
+        assertEquals(0.0, statistics.getMean());
+        assertEquals(0.0, statistics.getVariance());
+        assertTrue(Double.isNaN(statistics.percentile(50)));
+        assertThrows(IllegalArgumentException.class, () -> statistics.percentile(101));
+    }
+}
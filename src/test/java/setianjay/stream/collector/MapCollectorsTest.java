@@ -0,0 +1,164 @@
+package setianjay.stream.collector;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Map Collectors")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class MapCollectorsTest {
+
+    // "Setyarto" and "Hari Gurindo" has the same length with other name
+    private Stream<String> names() {
+        return Stream.of("Setyarto", "Sudaryati", "Gurindo Sekti", "Hari Setiaji", "Hariyadi", "Hari Gurindo");
+    }
+
+    @Test
+    @DisplayName(value = "with duplicate key fail")
+    void testFail() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> names()
+                .collect(MapCollectors.toMap(String::length, name -> name, 6, DuplicateKeyPolicy.FAIL)));
+
+        assertEquals("Duplicate key 8 (attempted merging values Setyarto and Hariyadi)", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName(value = "with duplicate key first wins")
+    void testFirstWins() {
+        Map<Integer, String> nameByLength = names()
+                .parallel()
+                .collect(MapCollectors.toMap(String::length, name -> name, 6, DuplicateKeyPolicy.FIRST_WINS));
+
+        // result {8: Setyarto, 9: Sudaryati, 12: Hari Setiaji, 13: Gurindo Sekti}
+        System.out.println(nameByLength);
+        assertEquals(4, nameByLength.size());
+        assertEquals("Setyarto", nameByLength.get(8));
+        assertEquals("Hari Setiaji", nameByLength.get(12));
+    }
+
+    @Test
+    @DisplayName(value = "with duplicate key last wins")
+    void testLastWins() {
+        Map<Integer, String> nameByLength = names()
+                .parallel()
+                .collect(MapCollectors.toMap(String::length, name -> name, 6, DuplicateKeyPolicy.LAST_WINS));
+
+        assertEquals(4, nameByLength.size());
+        assertEquals("Hariyadi", nameByLength.get(8));
+        assertEquals("Hari Gurindo", nameByLength.get(12));
+    }
+
+    @Test
+    @DisplayName(value = "with duplicate key combined")
+    void testCombine() {
+        Map<Integer, String> nameByLength = names()
+                .collect(MapCollectors.toMap(String::length, name -> name, 6, (first, last) -> first + ", " + last));
+
+        assertEquals("Setyarto, Hariyadi", nameByLength.get(8));
+    }
+
+    @Test
+    @DisplayName(value = "with duplicate key collected to list")
+    void testCollectingDuplicates() {
+        Map<Integer, List<String>> namesByLength = names()
+                .parallel()
+                .collect(MapCollectors.toMapCollectingDuplicates(String::length, name -> name, 6));
+
+        assertEquals(List.of("Setyarto", "Hariyadi"), namesByLength.get(8));
+        assertEquals(List.of("Sudaryati"), namesByLength.get(9));
+    }
+
+    @Test
+    @DisplayName(value = "with primitive key")
+    void testPrimitiveKey() {
+        IntKeyMap<String> nameByLength = names()
+                .collect(MapCollectors.toIntKeyMap(String::length, name -> name, 6, DuplicateKeyPolicy.LAST_WINS));
+
+        assertEquals(4, nameByLength.size());
+        assertEquals("Hariyadi", nameByLength.get(8));
+
+        LongKeyMap<Integer> squares = IntStream.range(0, 100_000).boxed()
+                .parallel()
+                .collect(MapCollectors.toLongKeyMap(number -> (long) number * number, number -> number, 100_000,
+                        DuplicateKeyPolicy.FAIL));
+
+        assertEquals(100_000, squares.size());
+        assertEquals(99_999, squares.get(99_999L * 99_999L));
+    }
+
+    @Test
+    @DisplayName(value = "with primitive key combined")
+    void testPrimitiveKeyCombine() {
+        IntKeyMap<String> nameByLength = names()
+                .parallel()
+                .collect(MapCollectors.toIntKeyMap(String::length, name -> name, 6,
+                        (first, last) -> first + ", " + last));
+
+        assertEquals("Setyarto, Hariyadi", nameByLength.get(8));
+
+        LongKeyMap<Integer> countByRemainder = IntStream.range(0, 100_000).boxed()
+                .parallel()
+                .collect(MapCollectors.toLongKeyMap(number -> number % 10L, number -> 1, 10, Integer::sum));
+
+        assertEquals(10, countByRemainder.size());
+        assertEquals(10_000, countByRemainder.get(7L));
+    }
+
+    @Test
+    @DisplayName(value = "with parallel stream keep the encounter order")
+    void testParallelEncounterOrder() {
+        // only the first split has the presized map, the others are merged into it or it is merged into them
+        Map<Integer, Integer> firstByRemainder = IntStream.range(0, 100_000).boxed()
+                .parallel()
+                .collect(MapCollectors.toMap(number -> number % 100, number -> number, 100,
+                        DuplicateKeyPolicy.FIRST_WINS));
+        Map<Integer, Integer> lastByRemainder = IntStream.range(0, 100_000).boxed()
+                .parallel()
+                .collect(MapCollectors.toMap(number -> number % 100, number -> number, 100,
+                        DuplicateKeyPolicy.LAST_WINS));
+        IntKeyMap<Integer> lastByIntRemainder = IntStream.range(0, 100_000).boxed()
+                .parallel()
+                .collect(MapCollectors.toIntKeyMap(number -> number % 100, number -> number, 100,
+                        DuplicateKeyPolicy.LAST_WINS));
+        Map<Integer, String> joinedByRemainder = IntStream.range(0, 1_000).boxed()
+                .parallel()
+                .collect(MapCollectors.toMap(number -> number % 10, String::valueOf, 10,
+                        (first, last) -> first + "," + last));
+        Map<Integer, List<Integer>> numbersByRemainder = IntStream.range(0, 1_000).boxed()
+                .parallel()
+                .collect(MapCollectors.toMapCollectingDuplicates(number -> number % 10, number -> number, 10));
+
+        for (int remainder = 0; remainder < 100; remainder++) {
+            assertEquals(remainder, firstByRemainder.get(remainder));
+            assertEquals(99_900 + remainder, lastByRemainder.get(remainder));
+            assertEquals(99_900 + remainder, lastByIntRemainder.get(remainder));
+        }
+        for (int remainder = 0; remainder < 10; remainder++) {
+            int start = remainder;
+            List<Integer> expected = IntStream.iterate(start, number -> number < 1_000, number -> number + 10)
+                    .boxed()
+                    .toList();
+            assertEquals(expected, numbersByRemainder.get(remainder));
+            assertEquals(String.join(",", expected.stream().map(String::valueOf).toList()),
+                    joinedByRemainder.get(remainder));
+        }
+    }
+
+    @Test
+    @DisplayName(value = "with parallel stream and duplicate key fail in encounter order")
+    void testParallelFail() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> IntStream.range(0, 10_000)
+                .boxed()
+                .parallel()
+                .collect(MapCollectors.toMap(number -> number == 9_999 ? 0 : number, number -> number, 10_000,
+                        DuplicateKeyPolicy.FAIL)));
+
+        // an exception thrown by another thread is wrapped by the fork join pool, so only the end of the message
+        assertTrue(exception.getMessage().endsWith("Duplicate key 0 (attempted merging values 0 and 9999)"));
+    }
+}
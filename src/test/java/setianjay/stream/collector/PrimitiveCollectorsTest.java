@@ -0,0 +1,107 @@
+package setianjay.stream.collector;
+
+import org.junit.jupiter.api.*;
+
+import java.util.EnumMap;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Primitive Collectors")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class PrimitiveCollectorsTest {
+
+    enum Parity {
+        EVEN, ODD
+    }
+
+    @Test
+    @DisplayName(value = "using groupBy")
+    void testGroupingBy() {
+        IntKeyMap<IntList> groupOfNumberBasedOnEvenOrOdd = PrimitiveCollectors.groupingBy(
+                IntStream.rangeClosed(1, 10),
+                number -> number % 2
+        );
+
+        // result is map {0: [2, 4, 6, 8, 10], 1: [1, 3, 5, 7, 9]}
+        System.out.println(groupOfNumberBasedOnEvenOrOdd);
+        assertEquals(2, groupOfNumberBasedOnEvenOrOdd.size());
+        assertArrayEquals(new int[]{2, 4, 6, 8, 10}, groupOfNumberBasedOnEvenOrOdd.get(0).toArray());
+        assertArrayEquals(new int[]{1, 3, 5, 7, 9}, groupOfNumberBasedOnEvenOrOdd.get(1).toArray());
+    }
+
+    @Test
+    @DisplayName(value = "using groupBy with enum key")
+    void testGroupingByEnum() {
+        EnumMap<Parity, IntList> groupOfNumberBasedOnEvenOrOdd = PrimitiveCollectors.groupingByEnum(
+                IntStream.rangeClosed(1, 10),
+                Parity.class,
+                number -> (number % 2 == 0) ? Parity.EVEN : Parity.ODD
+        );
+
+        // result is map {EVEN: [2, 4, 6, 8, 10], ODD: [1, 3, 5, 7, 9]}
+        System.out.println(groupOfNumberBasedOnEvenOrOdd);
+        assertEquals(5, groupOfNumberBasedOnEvenOrOdd.get(Parity.EVEN).size());
+        assertEquals(5, groupOfNumberBasedOnEvenOrOdd.get(Parity.ODD).size());
+    }
+
+    @Test
+    @DisplayName(value = "using groupBy with collector")
+    void testGroupingByCollector() {
+        // group the length of the names by the first letter
+        IntKeyMap<IntList> lengthByFirstLetter = Stream.of("Hari", "Hadi", "Gurindo", "Setyarto", "Sudaryati")
+                .collect(PrimitiveCollectors.groupingByInt(name -> name.charAt(0), String::length));
+
+        assertEquals(3, lengthByFirstLetter.size());
+        assertArrayEquals(new int[]{4, 4}, lengthByFirstLetter.get('H').toArray());
+        assertArrayEquals(new int[]{8, 9}, lengthByFirstLetter.get('S').toArray());
+        assertNull(lengthByFirstLetter.get('Z'));
+    }
+
+    @Test
+    @DisplayName(value = "using groupBy in parallel")
+    void testGroupingByParallel() {
+        LongKeyMap<LongList> groups = PrimitiveCollectors.groupingBy(
+                LongStream.range(0, 1_000_000).parallel(),
+                number -> number % 1000
+        );
+
+        assertEquals(1000, groups.size());
+        // the encounter order is kept, the same with Collectors.groupingBy
+        assertArrayEquals(
+                LongStream.range(0, 1000).map(index -> index * 1000 + 7).toArray(),
+                groups.get(7).toArray()
+        );
+        assertEquals(groups.toMap().keySet().size(), groups.keys().length);
+    }
+
+    @Test
+    @DisplayName(value = "using partitionBy")
+    void testPartitioningBy() {
+        Partition<IntList> groupOfNumberBasedOnEvenOrOdd = PrimitiveCollectors.partitioningBy(
+                IntStream.rangeClosed(1, 10).parallel(),
+                number -> number % 2 == 0
+        );
+
+        //  map {false: [1, 3, 5, 7, 9], true: [2, 4, 6, 8, 10]}
+        System.out.println(groupOfNumberBasedOnEvenOrOdd);
+        assertArrayEquals(new int[]{2, 4, 6, 8, 10}, groupOfNumberBasedOnEvenOrOdd.get(true).toArray());
+        assertArrayEquals(new int[]{1, 3, 5, 7, 9}, groupOfNumberBasedOnEvenOrOdd.get(false).toArray());
+    }
+
+    @Test
+    @DisplayName(value = "with many keys")
+    void testManyKeys() {
+        IntKeyMap<IntList> groups = new IntKeyMap<>();
+        for (int key = -50_000; key < 50_000; key++) {
+            groups.computeIfAbsent(key, k -> new IntList()).add(key);
+        }
+
+        assertEquals(100_000, groups.size());
+        for (int key = -50_000; key < 50_000; key++) {
+            assertEquals(key, groups.get(key).get(0));
+        }
+    }
+}
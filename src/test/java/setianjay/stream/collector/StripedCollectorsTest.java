@@ -0,0 +1,82 @@
+package setianjay.stream.collector;
+
+import org.junit.jupiter.api.*;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Striped Collectors")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class StripedCollectorsTest {
+
+    @Test
+    @DisplayName(value = "using groupBy")
+    void testGroupingBy() {
+        Map<String, List<Integer>> groupOfNumberBasedOnEvenOrOdd = Stream.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)
+                .parallel()
+                .collect(StripedCollectors.groupingBy((number) -> (number % 2 == 0) ? "Even" : "Odd"));
+
+        // result is map {"Even": [2, 4, 6, 8, 10], "Odd": [1, 3, 5, 7, 9]}, the order of the values may differ
+        System.out.println(groupOfNumberBasedOnEvenOrOdd);
+        assertEquals(2, groupOfNumberBasedOnEvenOrOdd.size());
+        assertEquals(5, groupOfNumberBasedOnEvenOrOdd.get("Even").size());
+        assertEquals(5, groupOfNumberBasedOnEvenOrOdd.get("Odd").size());
+    }
+
+    @Test
+    @DisplayName(value = "using groupBy with many keys")
+    void testGroupingByManyKeys() {
+        Map<Integer, Long> expected = IntStream.range(0, 1_000_000).boxed()
+                .collect(Collectors.groupingBy(number -> number % 10_000, Collectors.counting()));
+
+        Map<Integer, Long> result = IntStream.range(0, 1_000_000).boxed()
+                .parallel()
+                // small batch and few shards, so the flush and the contention happen a lot
+                .collect(StripedCollectors.groupingBy(number -> number % 10_000, Collectors.counting(), 4, 8));
+
+        assertEquals(expected, result);
+    }
+
+    @Test
+    @DisplayName(value = "as downstream")
+    void testAsDownstream() {
+        // as a downstream of a non concurrent collector the combiner is used to merge the containers
+        Map<Boolean, Map<Integer, Long>> result = IntStream.range(0, 100_000).boxed()
+                .parallel()
+                .collect(Collectors.partitioningBy(
+                        number -> number % 2 == 0,
+                        StripedCollectors.groupingBy(number -> number % 100, Collectors.counting())
+                ));
+
+        assertEquals(50, result.get(true).size());
+        assertEquals(1000L, result.get(true).get(42));
+        assertNull(result.get(true).get(43));
+    }
+
+    @Test
+    @DisplayName(value = "using groupBy repeatedly")
+    void testGroupingByRepeatedly() throws InterruptedException {
+        List<WeakReference<List<Integer>>> groups = new ArrayList<>();
+        for (int round = 0; round < 10; round++) {
+            Map<Integer, List<Integer>> result = IntStream.range(0, 100_000).boxed()
+                    .parallel()
+                    .collect(StripedCollectors.groupingBy(number -> number % 1_000));
+            assertEquals(1_000, result.size());
+            groups.add(new WeakReference<>(result.get(0)));
+        }
+
+        // the buffers left in the threads must not keep the results of the previous collects alive
+        for (int i = 0; i < 50 && groups.stream().anyMatch(group -> group.get() != null); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertTrue(groups.stream().allMatch(group -> group.get() == null));
+    }
+}
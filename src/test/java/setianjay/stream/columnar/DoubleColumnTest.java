@@ -0,0 +1,45 @@
+package setianjay.stream.columnar;
+
+import org.junit.jupiter.api.*;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.Random;
+import java.util.stream.DoubleStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Double Column")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class DoubleColumnTest {
+
+    private final double[] prices = new Random(42).doubles(100_003, 0, 1_000).toArray();
+
+    @Test
+    @DisplayName(value = "filter, map and aggregate")
+    void testFilterMapAndAggregate() {
+        DoubleColumn column = DoubleColumn.of(prices)
+                .filter(Condition.GREATER_THAN, 100)
+                .map(Operation.MULTIPLY, 1.1)
+                .map(Operation.MIN, 900);
+        DoubleSummaryStatistics expected = DoubleStream.of(prices)
+                .filter(price -> price > 100)
+                .map(price -> Math.min(price * 1.1, 900))
+                .summaryStatistics();
+
+        for (DoubleSummaryStatistics actual : new DoubleSummaryStatistics[]{column.summaryStatistics(),
+                column.scalar().summaryStatistics()}) {
+            assertEquals(expected.getCount(), actual.getCount());
+            // the values are added in a different order
+            assertEquals(expected.getSum(), actual.getSum(), 1e-6);
+            assertEquals(expected.getMin(), actual.getMin());
+            assertEquals(expected.getMax(), actual.getMax());
+        }
+        assertEquals(expected.getAverage(), column.average().orElseThrow(), 1e-9);
+    }
+
+    @Test
+    @DisplayName(value = "multiple of")
+    void testMultipleOf() {
+        assertThrows(IllegalArgumentException.class, () -> DoubleColumn.of(prices).filter(Condition.MULTIPLE_OF, 2));
+    }
+}
@@ -0,0 +1,144 @@
+package setianjay.stream.columnar;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.IntSummaryStatistics;
+import java.util.OptionalInt;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "An Int Column")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class IntColumnTest {
+
+    private final int[] numbers = IntStream.rangeClosed(1, 22).toArray();
+
+    private static void assertStatistics(IntSummaryStatistics expected, IntSummaryStatistics actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getSum(), actual.getSum());
+        assertEquals(expected.getMin(), actual.getMin());
+        assertEquals(expected.getMax(), actual.getMax());
+    }
+
+    // the same filter with the int operators, not with the code of a kernel
+    private static IntPredicate expected(Condition condition, int constant) {
+        return switch (condition) {
+            case EQUAL -> value -> value == constant;
+            case NOT_EQUAL -> value -> value != constant;
+            case LESS_THAN -> value -> value < constant;
+            case LESS_OR_EQUAL -> value -> value <= constant;
+            case GREATER_THAN -> value -> value > constant;
+            case GREATER_OR_EQUAL -> value -> value >= constant;
+            case MULTIPLE_OF -> value -> value % constant == 0;
+        };
+    }
+
+    private static IntUnaryOperator expected(Operation operation, int constant) {
+        return switch (operation) {
+            case ADD -> value -> value + constant;
+            case SUBTRACT -> value -> value - constant;
+            case MULTIPLY -> value -> value * constant;
+            case MIN -> value -> Math.min(value, constant);
+            case MAX -> value -> Math.max(value, constant);
+        };
+    }
+
+    @Test
+    @DisplayName(value = "empty")
+    void testEmpty() {
+        IntColumn nothing = IntColumn.of(numbers).filter(Condition.GREATER_THAN, 100);
+
+        assertEquals(0, nothing.count());
+        assertEquals(0, nothing.sum());
+        assertEquals(OptionalInt.empty(), nothing.min());
+        assertTrue(nothing.average().isEmpty());
+        assertEquals(0, IntColumn.of(new int[0]).count());
+        assertThrows(IllegalArgumentException.class, () -> IntColumn.of(numbers).filter(Condition.MULTIPLE_OF, 0));
+    }
+
+    @Test
+    @DisplayName(value = "filter and aggregate")
+    void testFilterAndAggregate() {
+        // the same with FilteringStreamTest and AggregateStreamTest
+        IntColumn even = IntColumn.of(numbers).filter(Condition.MULTIPLE_OF, 2);
+
+        assertEquals(IntStream.of(numbers).filter(number -> number % 2 == 0).sum(), even.sum());
+        assertEquals(11, even.count());
+        assertEquals(OptionalInt.of(2), even.min());
+        assertEquals(OptionalInt.of(22), even.max());
+        assertEquals(IntStream.of(numbers).average(), IntColumn.of(numbers).average());
+    }
+
+    @Test
+    @DisplayName(value = "one pass for every aggregate")
+    void testOnePass() {
+        int[] numbers = this.numbers.clone();
+        IntColumn column = IntColumn.of(numbers).filter(Condition.GREATER_THAN, 10);
+
+        // the first aggregate runs the job, the others read its result
+        assertEquals(12, column.count());
+        numbers[21] = 1_000;
+        assertEquals(OptionalInt.of(22), column.max());
+        assertEquals(OptionalInt.of(11), column.min());
+        assertEquals(198, column.sum());
+        assertEquals(16.5, column.average().orElseThrow());
+        assertEquals(12, column.summaryStatistics().getCount());
+
+        // a new column runs the job again
+        assertEquals(OptionalInt.of(1_000), IntColumn.of(numbers).max());
+    }
+
+    @Test
+    @DisplayName(value = "random jobs")
+    void testRandomJobs() {
+        Random random = new Random(42);
+        Condition[] conditions = Condition.values();
+        Operation[] operations = Operation.values();
+        for (int size : new int[]{1, 7, 64, 1_000, 100_003}) {
+            int[] values = random.ints(size).toArray();
+            for (int job = 0; job < 50; job++) {
+                IntColumn column = IntColumn.of(values, 1 % size, size);
+                IntStream stream = IntStream.of(values).skip(1 % size);
+                for (int step = 0; step < 3; step++) {
+                    int constant = random.nextInt(2) == 0 ? random.nextInt() : 1 << random.nextInt(4);
+                    if (random.nextBoolean()) {
+                        Condition condition = conditions[random.nextInt(conditions.length)];
+                        column = column.filter(condition, constant == 0 ? 3 : constant);
+                        stream = stream.filter(expected(condition, constant == 0 ? 3 : constant));
+                    } else {
+                        Operation operation = operations[random.nextInt(operations.length)];
+                        column = column.map(operation, constant);
+                        stream = stream.map(expected(operation, constant));
+                    }
+                }
+
+                IntSummaryStatistics expected = stream.summaryStatistics();
+                assertStatistics(expected, column.summaryStatistics());
+                assertStatistics(expected, column.scalar().summaryStatistics());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName(value = "sum without overflow")
+    void testSumWithoutOverflow() {
+        int[] large = new int[1_000_000];
+        Arrays.fill(large, Integer.MAX_VALUE);
+        large[7] = Integer.MIN_VALUE;
+
+        assertEquals(IntStream.of(large).asLongStream().sum(), IntColumn.of(large).sum());
+    }
+
+    @Test
+    @DisplayName(value = "vectorized")
+    void testVectorized() {
+        // the tests run with --add-modules jdk.incubator.vector
+        assertTrue(IntColumn.of(numbers).isVectorized());
+        assertFalse(IntColumn.of(numbers).scalar().isVectorized());
+    }
+}
@@ -0,0 +1,44 @@
+package setianjay.stream.columnar;
+
+import org.junit.jupiter.api.*;
+
+import java.util.LongSummaryStatistics;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Long Column")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class LongColumnTest {
+
+    private final long[] numbers = LongStream.rangeClosed(-50_000, 50_000).map(number -> number * 1_000_003).toArray();
+
+    @Test
+    @DisplayName(value = "filter, map and aggregate")
+    void testFilterMapAndAggregate() {
+        LongColumn column = LongColumn.of(numbers)
+                .filter(Condition.GREATER_OR_EQUAL, 0)
+                .map(Operation.MULTIPLY, 3)
+                .filter(Condition.MULTIPLE_OF, 4)
+                .map(Operation.SUBTRACT, 1);
+        LongSummaryStatistics expected = LongStream.of(numbers)
+                .filter(number -> number >= 0)
+                .map(number -> number * 3)
+                .filter(number -> number % 4 == 0)
+                .map(number -> number - 1)
+                .summaryStatistics();
+
+        assertEquals(expected.toString(), column.summaryStatistics().toString());
+        assertEquals(expected.toString(), column.scalar().summaryStatistics().toString());
+    }
+
+    @Test
+    @DisplayName(value = "not a power of two")
+    void testNotPowerOfTwo() {
+        // there is no SIMD division, the job runs on the scalar kernel
+        LongColumn column = LongColumn.of(numbers).filter(Condition.MULTIPLE_OF, 7);
+
+        assertEquals(LongStream.of(numbers).filter(number -> number % 7 == 0).count(), column.count());
+        assertEquals(LongStream.of(numbers).filter(number -> number % 7 == 0).min(), column.min());
+    }
+}
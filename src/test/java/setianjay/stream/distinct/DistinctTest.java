@@ -0,0 +1,160 @@
+package setianjay.stream.distinct;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import setianjay.stream.spill.Serializer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Distinct")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class DistinctTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    @DisplayName(value = "exact in memory")
+    void testExactInMemory() {
+        SpillingDistinct<String> distinct = Distinct.exact(100, Serializer.strings());
+        List<String> names = distinct
+                .apply(Stream.of("Hari", "Hari", "Hari", "Gurindo", "Gurindo", "Setyarto", "Sudaryati"))
+                .toList();
+
+        // under the budget the encounter order is kept, result : {"Hari", "Gurindo", "Setyarto", "Sudaryati"}
+        assertEquals(List.of("Hari", "Gurindo", "Setyarto", "Sudaryati"), names);
+        assertEquals(0, distinct.spilledElements());
+        assertTrue(distinct.memoryFootprint() > 0);
+    }
+
+    @Test
+    @DisplayName(value = "exact with spill")
+    void testExactWithSpill() throws Exception {
+        SpillingDistinct<Integer> distinct = Distinct.exact(1_000, Serializer.ints(), 4, spillDirectory);
+        // 100_000 elements with 20_000 distinct value, only 1_000 fit in memory so the partitions spill again
+        Stream<Integer> numbers = IntStream.range(0, 100_000).map(number -> (number * 7919) % 20_000).boxed();
+
+        Set<Integer> result = new HashSet<>();
+        try (Stream<Integer> distinctNumbers = distinct.apply(numbers)) {
+            distinctNumbers.forEach(number -> assertTrue(result.add(number), "duplicate " + number));
+        }
+
+        assertEquals(20_000, result.size());
+        assertTrue(distinct.spilledElements() > 0);
+        assertTrue(distinct.spilledBytes() > 0);
+        assertTrue(distinct.memoryFootprint() <= 1_000 * 64L);
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count()); // every spill file is deleted
+        }
+    }
+
+    @Test
+    @DisplayName(value = "exact with spill and default partitions")
+    void testExactDefaultPartitions() throws Exception {
+        SpillingDistinct<Integer> distinct = Distinct.exact(1_000, Serializer.ints(), Distinct.DEFAULT_PARTITIONS,
+                spillDirectory);
+        // 200_000 distinct value, every partition of the first spill is still too big and is partitioned again
+        Stream<Integer> numbers = IntStream.range(0, 400_000).map(number -> number % 200_000).boxed();
+
+        long count;
+        try (Stream<Integer> distinctNumbers = distinct.apply(numbers)) {
+            count = distinctNumbers.count();
+        }
+
+        // a partition that is not split by the deeper hash ends at the maximum depth with everything in memory
+        assertEquals(200_000, count);
+        assertTrue(distinct.memoryFootprint() <= 1_000 * 64L, "peak " + distinct.memoryFootprint());
+    }
+
+    @Test
+    @DisplayName(value = "exact closed before consumed")
+    void testExactClosed() throws Exception {
+        try (Stream<Integer> numbers = Distinct.exact(10, Serializer.ints(), 4, spillDirectory)
+                .apply(IntStream.range(0, 1_000).boxed())) {
+            // the first 10 elements fit in memory, the 51st element is read from a partition
+            assertNotNull(numbers.skip(50).findFirst().orElseThrow());
+        }
+
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName(value = "approximate")
+    void testApproximate() {
+        BloomDistinct<String> distinct = Distinct.approximate(100_000, 0.01);
+        long count = IntStream.range(0, 300_000)
+                .mapToObj(number -> "Name" + (number % 100_000))
+                .parallel()
+                .filter(distinct)
+                .count();
+
+        // no duplicate is accepted, about 1% of the distinct value can be dropped as false positive
+        assertTrue(count <= 100_000, "count " + count);
+        assertTrue(count >= 98_000, "count " + count);
+        // about 9.6 bits for every element with 1% false positive rate
+        assertTrue(distinct.memoryFootprint() < 130_000, "footprint " + distinct.memoryFootprint());
+    }
+
+    @Test
+    @DisplayName(value = "windowed")
+    void testWindowed() {
+        AtomicLong clock = new AtomicLong();
+        WindowedDistinct<String> distinct = Distinct.window(2, Duration.ofNanos(10), clock::get);
+
+        assertTrue(distinct.test("Hari"));
+        assertFalse(distinct.test("Hari")); // seen in the window
+        clock.set(20);
+        assertTrue(distinct.test("Hari")); // the window is passed
+        assertTrue(distinct.test("Gurindo"));
+        assertTrue(distinct.test("Setyarto")); // "Hari" is evicted, only 2 elements are remembered
+        assertTrue(distinct.test("Hari"));
+        assertEquals(2, distinct.size());
+    }
+
+    @Test
+    @DisplayName(value = "windowed with frequent duplicate")
+    void testWindowedFrequentDuplicate() {
+        AtomicLong clock = new AtomicLong();
+        WindowedDistinct<String> distinct = Distinct.window(2, Duration.ofNanos(10), clock::get);
+
+        // "Hari" every 4 nanoseconds, the dropped duplicates do not extend the window of the admitted one
+        long admitted = IntStream.range(0, 10)
+                .peek(tick -> clock.set(tick * 4L))
+                .filter(tick -> distinct.test("Hari"))
+                .count();
+
+        // admitted at 0, 12, 24 and 36
+        assertEquals(4, admitted);
+    }
+
+    @Test
+    @DisplayName(value = "exact with null")
+    void testExactWithNull() {
+        Spliterator<String> nullable = Distinct.<String>exact(100, Serializer.strings())
+                .apply(Stream.of("Hari", "Gurindo"))
+                .spliterator();
+        Spliterator<String> nonNull = Distinct.<String>exact(100, Serializer.strings())
+                .apply(StreamSupport.stream(
+                        Spliterators.spliterator(new String[]{"Hari", "Gurindo"}, Spliterator.NONNULL), false))
+                .spliterator();
+
+        // NONNULL is only reported when the source reports it, Stream.of(...) may hold null
+        assertFalse(nullable.hasCharacteristics(Spliterator.NONNULL));
+        assertTrue(nonNull.hasCharacteristics(Spliterator.NONNULL));
+    }
+}
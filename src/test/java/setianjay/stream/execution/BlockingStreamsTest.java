@@ -0,0 +1,114 @@
+package setianjay.stream.execution;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Blocking Streams")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class BlockingStreamsTest {
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis); // blocking call, like a file read or a call to a service
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    @DisplayName(value = "map concurrent ordered")
+    void testMapConcurrentOrdered() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<Integer> result = BlockingStreams.mapConcurrent(IntStream.range(0, 100).boxed(), 10, number -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(100 - number % 10 * 10); // the later element is completed first
+            running.decrementAndGet();
+            return number * 2;
+        }).toList();
+
+        assertEquals(IntStream.range(0, 100).map(number -> number * 2).boxed().toList(), result);
+        assertTrue(maxRunning.get() <= 10, "max running " + maxRunning.get());
+    }
+
+    @Test
+    @DisplayName(value = "map concurrent unordered")
+    void testMapConcurrentUnordered() {
+        List<Integer> result = BlockingStreams.mapConcurrentUnordered(Stream.of(1, 2, 3), 3, number -> {
+            sleep(200 - number * 50L);
+            return number;
+        }).toList();
+
+        // the fastest element comes first
+        assertEquals(List.of(3, 2, 1), result);
+    }
+
+    @Test
+    @DisplayName(value = "map concurrent with exception")
+    void testMapConcurrentWithException() {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch cancelled = new CountDownLatch(2);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> BlockingStreams.mapConcurrent(Stream.of(1, 2, 3), 3, number -> {
+                    if (number == 1) {
+                        // fail only after the other elements are running
+                        assertDoesNotThrow(() -> started.await());
+                        throw new IllegalArgumentException("item " + number);
+                    }
+                    try {
+                        started.countDown();
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        cancelled.countDown(); // the other elements in flight are cancelled
+                    }
+                    return number;
+                }).toList());
+
+        assertEquals("item 1", exception.getMessage());
+        assertDoesNotThrow(() -> assertTrue(cancelled.await(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    @DisplayName(value = "map concurrent with short circuit")
+    void testMapConcurrentWithShortCircuit() throws InterruptedException {
+        AtomicInteger started = new AtomicInteger();
+        CountDownLatch cancelled = new CountDownLatch(1);
+
+        try (Stream<Integer> numbers = BlockingStreams.mapConcurrent(IntStream.range(0, 1_000).boxed(), 4, number -> {
+            started.incrementAndGet();
+            if (number == 0) {
+                // wait until the rest of the window is running, so there is something to cancel
+                while (started.get() < 4) {
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                }
+            } else {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    cancelled.countDown();
+                }
+            }
+            return number;
+        })) {
+            assertEquals(0, numbers.findFirst().orElseThrow());
+        }
+
+        // only the first window is started, and it is cancelled when the stream is closed
+        assertTrue(started.get() <= 4, "started " + started.get());
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+    }
+}
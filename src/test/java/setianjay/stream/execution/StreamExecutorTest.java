@@ -0,0 +1,87 @@
+package setianjay.stream.execution;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Stream Executor")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class StreamExecutorTest {
+
+    @Test
+    @DisplayName(value = "parallel in own pool")
+    void testParallelInOwnPool() {
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        try (StreamExecutor executor = StreamExecutor.create("report", 2)) {
+            long count = executor.execute(() -> IntStream.rangeClosed(1, 100_000)
+                    .parallel()
+                    .peek(item -> threadNames.add(Thread.currentThread().getName()))
+                    .filter(number -> number % 2 == 0)
+                    .count());
+
+            assertEquals(50_000, count);
+            StreamExecutor.Metrics metrics = executor.metrics();
+            assertEquals(1, metrics.completed());
+            assertTrue(metrics.poolSize() <= 2);
+        }
+
+        // execution item with the threads of the pool, never with the common pool
+        System.out.println(threadNames);
+        assertTrue(threadNames.stream().allMatch(name -> name.startsWith("report-worker-")), threadNames::toString);
+    }
+
+    @Test
+    @DisplayName(value = "with exception")
+    void testException() {
+        try (StreamExecutor executor = StreamExecutor.create("failing", 2)) {
+            assertThrows(IllegalStateException.class, () -> executor.run(() -> Stream.of(1, 2, 3)
+                    .parallel()
+                    .forEach(item -> {
+                        throw new IllegalStateException("item " + item);
+                    })));
+
+            assertEquals(1, executor.metrics().failed());
+        }
+    }
+
+    @Test
+    @DisplayName(value = "blocking on virtual threads")
+    void testBlockingOnVirtualThreads() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+
+        BlockingStreams.forEach(IntStream.range(0, 200).boxed(), 20, item -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5); // blocking call
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+            assertTrue(Thread.currentThread().isVirtual());
+            done.incrementAndGet();
+        });
+
+        assertEquals(200, done.get());
+        assertTrue(maxRunning.get() <= 20, "max running " + maxRunning.get());
+    }
+
+    @Test
+    @DisplayName(value = "blocking with exception")
+    void testBlockingWithException() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> BlockingStreams.forEach(Stream.of(1, 2, 3), 1, item -> {
+                    throw new IllegalArgumentException("item " + item);
+                }));
+
+        assertEquals("item 1", exception.getMessage());
+    }
+}
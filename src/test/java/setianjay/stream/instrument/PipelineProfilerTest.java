@@ -0,0 +1,116 @@
+package setianjay.stream.instrument;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Pipeline Profiler")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class PipelineProfilerTest {
+
+    private final List<String> names = List.of("Hari", "Budi", "Edi", "Gurindo", "Firman", "Setyarto", "Sudaryati");
+
+    @Test
+    @DisplayName(value = "counts")
+    void testCounts() {
+        PipelineProfiler profiler = PipelineProfiler.create("names", 1);
+
+        List<String> longNames = names.stream()
+                .filter(profiler.filter("long", name -> name.length() > 4))
+                .map(profiler.map("upper", String::toUpperCase))
+                .peek(profiler.count("result"))
+                .limit(2)
+                .toList();
+
+        // result {GURINDO, FIRMAN}, the filter reads until the second long name
+        assertEquals(List.of("GURINDO", "FIRMAN"), longNames);
+        PipelineSnapshot snapshot = profiler.snapshot();
+        assertEquals(List.of("long", "upper", "result"), snapshot.stages().stream().map(StageSnapshot::name).toList());
+        assertEquals(5, snapshot.stage("long").in());
+        assertEquals(2, snapshot.stage("long").out());
+        assertEquals(0.4, snapshot.stage("long").selectivity());
+        assertEquals(2, snapshot.stage("upper").out());
+        assertEquals(2, snapshot.stage("result").in());
+        assertTrue(snapshot.stage("upper").wallNanos() > 0);
+    }
+
+    @Test
+    @DisplayName(value = "disabled")
+    void testDisabled() {
+        PipelineProfiler profiler = PipelineProfiler.of("names", false);
+        Predicate<String> predicate = name -> name.length() > 4;
+        Function<String, Integer> mapper = String::length;
+
+        // the functions are not wrapped, so there is no cost
+        assertSame(predicate, profiler.filter("long", predicate));
+        assertSame(mapper, profiler.map("length", mapper));
+        assertFalse(profiler.isEnabled());
+        assertEquals(List.of(), profiler.snapshot().stages());
+    }
+
+    @Test
+    @DisplayName(value = "invalid sample interval")
+    void testInvalidSampleInterval() {
+        assertThrows(IllegalArgumentException.class, () -> PipelineProfiler.create("names", 0));
+        assertThrows(IllegalArgumentException.class, () -> PipelineProfiler.create("names", 3));
+    }
+
+    @Test
+    @DisplayName(value = "jfr event")
+    void testJfrEvent() throws IOException {
+        PipelineProfiler profiler = PipelineProfiler.create("names");
+        Path file = Files.createTempFile("profiler", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("setianjay.stream.Stage");
+            recording.start();
+
+            try (Stream<String> stream = profiler.onClose(names.stream())) {
+                assertEquals(4, stream.filter(profiler.filter("long", name -> name.length() > 4)).count());
+            }
+
+            recording.stop();
+            recording.dump(file);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertEquals(1, events.size());
+            assertEquals("names", events.getFirst().getString("pipeline"));
+            assertEquals("long", events.getFirst().getString("stage"));
+            assertEquals(7, events.getFirst().getLong("in"));
+            assertEquals(4, events.getFirst().getLong("out"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName(value = "parallel")
+    void testParallel() {
+        PipelineProfiler profiler = PipelineProfiler.create("numbers");
+
+        long even = IntStream.range(0, 1_000_000).boxed().parallel()
+                .filter(profiler.filter("even", number -> number % 2 == 0))
+                .count();
+
+        StageSnapshot stage = profiler.snapshot().stage("even");
+        assertEquals(500_000, even);
+        assertEquals(1_000_000, stage.in());
+        assertEquals(500_000, stage.out());
+        // every element is counted by the thread that tested it
+        assertEquals(1_000_000, stage.threads().values().stream().mapToLong(Long::longValue).sum());
+
+        profiler.reset();
+        assertEquals(0, profiler.snapshot().stage("even").in());
+        assertEquals(0, profiler.snapshot().stage("even").threads().size());
+    }
+}
@@ -0,0 +1,105 @@
+package setianjay.stream.match;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Multi Match")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class MultiMatchTest {
+
+    private final List<Integer> numbers = List.of(2, 4, 6, 8, 10, 12, 14, 16, 18, 20, 22);
+
+    @Test
+    @DisplayName(value = "empty")
+    void testEmpty() {
+        MatchResult result = MultiMatch.<Integer>create()
+                .anyMatch("any", number -> true)
+                .allMatch("all", number -> false)
+                .noneMatch("none", number -> true)
+                .evaluate(Stream.empty());
+
+        // the same with the stream operations on an empty stream
+        assertEquals(Map.of("any", false, "all", true, "none", true), result.toMap());
+        assertEquals(0, MultiMatch.create().evaluate(numbers.stream()).size());
+    }
+
+    @Test
+    @DisplayName(value = "early stop")
+    void testEarlyStop() {
+        AtomicInteger tested = new AtomicInteger();
+        MultiMatch<Integer> match = MultiMatch.<Integer>create()
+                .anyMatch("even", number -> number % 2 == 0)
+                .allMatch("small", number -> number < 100)
+                .noneMatch("large", number -> {
+                    tested.incrementAndGet();
+                    return number > 22;
+                });
+
+        // infinite stream, it can only finish if it stops when all the checks are decided
+        MatchResult result = match.evaluate(Stream.iterate(1, number -> number + 1));
+
+        assertEquals(Map.of("even", true, "small", false, "large", false), result.toMap());
+        // a decided check is not tested anymore
+        assertEquals(23, tested.get());
+    }
+
+    @Test
+    @DisplayName(value = "exception")
+    void testException() {
+        MultiMatch<Integer> match = MultiMatch.<Integer>create()
+                .anyMatch("failing", number -> {
+                    throw new IllegalStateException("invalid " + number);
+                });
+
+        assertThrows(IllegalStateException.class, () -> match.evaluate(numbers.stream()));
+        assertThrows(IllegalArgumentException.class, () -> match.anyMatch("failing", number -> true));
+        assertThrows(IllegalArgumentException.class, () -> match.evaluate(numbers.stream().limit(0)).get("none"));
+    }
+
+    @Test
+    @DisplayName(value = "one pass")
+    void testOnePass() {
+        AtomicInteger pulled = new AtomicInteger();
+        MatchResult result = MultiMatch.<Integer>create()
+                .anyMatch("anyMatch", number -> number % 2 == 0)
+                .allMatch("allMatch", number -> number % 2 == 0)
+                .noneMatch("noneMatch", number -> number > 22)
+                .evaluate(numbers.stream().peek(number -> pulled.incrementAndGet()));
+
+        // result the same with CheckedStreamTest, all the numbers are read only once
+        assertEquals(Map.of("anyMatch", true, "allMatch", true, "noneMatch", true), result.toMap());
+        assertTrue(result.allTrue());
+        assertEquals(numbers.size(), pulled.get());
+    }
+
+    @Test
+    @DisplayName(value = "parallel")
+    void testParallel() {
+        MultiMatch<Integer> match = MultiMatch.create();
+        for (int divisor = 1; divisor <= 30; divisor++) {
+            int value = divisor;
+            match = match.anyMatch("any " + divisor, number -> number % (value * 1000) == 7)
+                    .allMatch("all " + divisor, number -> number < value * 100_000)
+                    .noneMatch("none " + divisor, number -> number == value * 50_000);
+        }
+
+        MatchResult result = match.evaluate(IntStream.range(0, 1_000_000).boxed().parallel());
+
+        assertEquals(90, result.size());
+        for (int divisor = 1; divisor <= 30; divisor++) {
+            int value = divisor;
+            Predicate<Integer> any = number -> number % (value * 1000) == 7;
+            assertEquals(IntStream.range(0, 1_000_000).boxed().anyMatch(any), result.get("any " + divisor));
+            assertEquals(1_000_000 <= value * 100_000, result.get("all " + divisor));
+            assertEquals(value * 50_000 >= 1_000_000, result.get("none " + divisor));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package setianjay.stream.pipeline;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Pipeline")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class PipelineTest {
+
+    private final Integer[] numbers = {2, 4, 6, 8, 10, 12, 14, 16, 18, 20, 22, 23};
+
+    private final Pipeline<Integer, String> smallAsText = Pipeline.<Integer>start()
+            .filter(number -> number < 10)
+            .map(number -> number * 3)
+            .filter(number -> number % 2 == 0)
+            .map(number -> "#" + number);
+
+    @Test
+    @DisplayName(value = "collect")
+    void testCollect() {
+        assertEquals("#6,#12,#18,#24", smallAsText.collect(numbers, Collectors.joining(",")));
+        assertEquals(Set.of("#6", "#12", "#18", "#24"), smallAsText.collect(numbers, Collectors.toSet()));
+    }
+
+    @Test
+    @DisplayName(value = "count and sum")
+    void testCountAndSum() {
+        Pipeline<Integer, Integer> even = Pipeline.<Integer>start().filter(number -> number % 2 == 0);
+
+        assertEquals(11, even.count(numbers));
+        assertEquals(Stream.of(numbers).filter(number -> number % 2 == 0).mapToLong(Integer::longValue).sum(),
+                even.sum(numbers, Integer::longValue));
+        assertEquals(0, even.count(new Integer[0]));
+    }
+
+    @Test
+    @DisplayName(value = "find first")
+    void testFindFirst() {
+        AtomicInteger read = new AtomicInteger();
+        Pipeline<Integer, Integer> large = Pipeline.<Integer>start()
+                .peek(number -> read.incrementAndGet())
+                .filter(number -> number > 15);
+
+        assertEquals(Optional.of(16), large.findFirst(numbers));
+        // stops at the first element that passes
+        assertEquals(8, read.get());
+        assertEquals(Optional.empty(), large.findFirst(List.of(1, 2, 3)));
+    }
+
+    @Test
+    @DisplayName(value = "reduce")
+    void testReduce() {
+        Pipeline<Integer, Integer> evenDoubled = Pipeline.<Integer>start()
+                .filter(number -> number % 2 == 0)
+                .map(number -> number * 2);
+
+        // the same pipeline with different inputs
+        assertEquals(Stream.of(numbers).filter(number -> number % 2 == 0).map(number -> number * 2)
+                .reduce(0, Integer::sum), evenDoubled.reduce(numbers, 0, Integer::sum));
+        assertEquals(12, evenDoubled.reduce(List.of(1, 2, 3, 4), 0, Integer::sum));
+        assertEquals(12, evenDoubled.reduce(new LinkedList<>(List.of(1, 2, 3, 4)), 0, Integer::sum));
+    }
+
+    @Test
+    @DisplayName(value = "reused by threads")
+    void testThreads() {
+        List<Integer> batch = IntStream.range(0, 100).boxed().toList();
+        long expected = smallAsText.count(batch);
+
+        // one pipeline shared by all the threads
+        assertTrue(IntStream.range(0, 10_000).parallel().allMatch(run -> smallAsText.count(batch) == expected));
+    }
+
+    @Test
+    @DisplayName(value = "to list")
+    void testToList() {
+        assertEquals(List.of("#6", "#12", "#18", "#24"), smallAsText.toList(numbers));
+        assertEquals(List.of(2, 4), Pipeline.<Integer>start().toList(List.of(2, 4)));
+        assertThrows(UnsupportedOperationException.class, () -> smallAsText.toList(numbers).add("#0"));
+    }
+}
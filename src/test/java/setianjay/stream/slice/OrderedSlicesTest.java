@@ -0,0 +1,107 @@
+package setianjay.stream.slice;
+
+import org.junit.jupiter.api.*;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "An Ordered Slices")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class OrderedSlicesTest {
+
+    private final List<Integer> numbers = IntStream.range(0, 100_000).boxed().toList();
+
+    @Test
+    @DisplayName(value = "drop while")
+    void testDropWhile() {
+        Predicate<Integer> small = number -> number < 70_000;
+
+        assertEquals(numbers.stream().dropWhile(small).toList(),
+                OrderedSlices.dropWhile(numbers, small, 1000).toList());
+        assertEquals(List.of(), OrderedSlices.dropWhile(numbers, number -> true).toList());
+        assertEquals(numbers, OrderedSlices.dropWhile(numbers, number -> false).toList());
+    }
+
+    @Test
+    @DisplayName(value = "limit")
+    void testLimit() {
+        for (long maxSize : new long[]{0, 1, 999, 12_345, 99_999, 100_000, 1_000_000}) {
+            assertEquals(numbers.stream().limit(maxSize).toList(),
+                    OrderedSlices.limit(numbers.parallelStream(), maxSize).toList());
+        }
+        assertEquals(1_000, OrderedSlices.limit(numbers.parallelStream(), 1_000).spliterator().getExactSizeIfKnown());
+        assertThrows(IllegalArgumentException.class, () -> OrderedSlices.limit(numbers.stream(), -1));
+    }
+
+    @Test
+    @DisplayName(value = "not sized")
+    void testNotSized() {
+        // after a filter the size of the splits is not known, the stream operations are used
+        Stream<Integer> even = numbers.parallelStream().filter(number -> number % 2 == 0);
+
+        assertEquals(numbers.stream().filter(number -> number % 2 == 0).skip(10).limit(5).toList(),
+                OrderedSlices.slice(even, 10, 15).toList());
+    }
+
+    @Test
+    @DisplayName(value = "skip")
+    void testSkip() {
+        for (long n : new long[]{0, 1, 999, 12_345, 99_999, 100_000, 1_000_000}) {
+            assertEquals(numbers.stream().skip(n).toList(), OrderedSlices.skip(numbers.parallelStream(), n).toList());
+        }
+        assertEquals(IntStream.range(50, 60).boxed().toList(),
+                OrderedSlices.slice(numbers.stream(), 50, 60).toList());
+    }
+
+    @Test
+    @DisplayName(value = "slice is not read outside the range")
+    void testSliceNotRead() {
+        AtomicInteger read = new AtomicInteger();
+        Stream<Integer> numbers = this.numbers.parallelStream().map(number -> {
+            read.incrementAndGet();
+            return number;
+        });
+
+        // sum() instead of count(), the count of a SIZED pipeline is computed without traversing it
+        long sum = OrderedSlices.slice(numbers, 50_000, 50_010).mapToLong(Integer::longValue).sum();
+
+        assertEquals(LongStream.range(50_000, 50_010).sum(), sum);
+        // only the range is read, not the whole list
+        assertEquals(10, read.get());
+    }
+
+    @Test
+    @DisplayName(value = "take while")
+    void testTakeWhile() {
+        Predicate<Integer> small = number -> number < 70_000;
+
+        assertEquals(numbers.stream().takeWhile(small).toList(),
+                OrderedSlices.takeWhile(numbers, small, 1000).toList());
+        assertEquals(numbers, OrderedSlices.takeWhile(numbers, number -> true).toList());
+        assertEquals(List.of(), OrderedSlices.takeWhile(List.<Integer>of(), number -> true).toList());
+        assertEquals(List.of(1, 2), OrderedSlices.takeWhile(new LinkedList<>(List.of(1, 2, 5, 3)),
+                number -> number < 3).toList());
+        assertThrows(IllegalArgumentException.class, () -> OrderedSlices.takeWhile(numbers, small, 0));
+    }
+
+    @Test
+    @DisplayName(value = "take while cancels the search after the cut")
+    void testTakeWhileCancel() {
+        AtomicInteger tested = new AtomicInteger();
+
+        List<Integer> firstTen = OrderedSlices.takeWhile(numbers, number -> {
+            tested.incrementAndGet();
+            return number < 10;
+        }, 100).toList();
+
+        assertEquals(IntStream.range(0, 10).boxed().toList(), firstTen);
+        assertTrue(tested.get() < numbers.size() / 2, "tested " + tested.get());
+    }
+}
@@ -0,0 +1,78 @@
+package setianjay.stream.sort;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import setianjay.stream.spill.Serializer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "An External Sort")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class ExternalSortTest {
+
+    // string size comparator, if the length are equal sort them alphabetically
+    private final Comparator<String> stringSizeComparator = Comparator.comparingInt(String::length)
+            .thenComparing(Comparator.naturalOrder());
+
+    @TempDir
+    Path runDirectory;
+
+    @Test
+    @DisplayName(value = "with sorted with comparator")
+    void testSortedWithComparator() {
+        ExternalSort<String> sort = ExternalSort.of(stringSizeComparator, Serializer.strings(), 3, 2, runDirectory);
+        List<String> sortedList = sort
+                .apply(Stream.of("Hari", "Budi", "Edi", "Gurindo", "Firman", "Setyarto", "Sudaryati", "El", "Al",
+                        "Zidan"))
+                .toList();
+
+        assertEquals(
+                List.of("Al", "El", "Edi", "Budi", "Hari", "Zidan", "Firman", "Gurindo", "Setyarto", "Sudaryati"),
+                sortedList
+        );
+        // 10 elements with 3 elements in a run is 4 runs, merged 2 by 2 is 2 more runs
+        assertEquals(6, sort.runCount());
+    }
+
+    @Test
+    @DisplayName(value = "in memory")
+    void testInMemory() {
+        ExternalSort<String> sort = ExternalSort.of(Comparator.naturalOrder(), Serializer.strings(), 100);
+        List<String> sortedList = sort.apply(Stream.of("Hari", "Budi", "Edi", "El", "Al")).toList();
+
+        assertEquals(List.of("Al", "Budi", "Edi", "El", "Hari"), sortedList);
+        assertEquals(0, sort.runCount());
+    }
+
+    @Test
+    @DisplayName(value = "bigger than memory")
+    void testBiggerThanMemory() throws Exception {
+        long[] numbers = new Random(42).longs(200_000, 0, 1_000).toArray();
+        // the value is the number itself, the index is the tie breaker to check the sort is stable
+        Stream<Long> source = IntStream.range(0, numbers.length).mapToObj(index -> numbers[index] * 1_000_000 + index);
+
+        ExternalSort<Long> sort = ExternalSort.of(Comparator.comparingLong(value -> value / 1_000_000),
+                Serializer.longs(), 10_000, 4, runDirectory);
+        try (Stream<Long> sorted = sort.apply(source)) {
+            long[] result = sorted.mapToLong(Long::longValue).toArray();
+
+            assertEquals(numbers.length, result.length);
+            for (int i = 1; i < result.length; i++) {
+                assertTrue(result[i - 1] < result[i], "not sorted or not stable at " + i);
+            }
+        }
+
+        assertTrue(sort.runCount() > 20);
+        try (Stream<Path> files = Files.list(runDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package setianjay.stream.sort;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Keyed Sort")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class KeyedSortTest {
+
+    private final List<String> names = List.of(
+            "Hari", "Budi", "Edi", "Gurindo", "Firman", "Setyarto", "Sudaryati", "El", "Al", "Zidan"
+    );
+
+    @Test
+    @DisplayName(value = "with length and then alphabetically")
+    void testSortByLengthThenAlphabetically() {
+        AtomicLong comparisons = new AtomicLong();
+        KeyedSort<String> stringSizeSort = KeyedSort.<String>comparingInt(String::length)
+                .thenComparing(Comparator.naturalOrder())
+                .withListener((size, count, elapsedNanos) -> comparisons.set(count));
+
+        List<String> sortedList = stringSizeSort.sort(names);
+
+        assertEquals(
+                List.of("Al", "El", "Edi", "Budi", "Hari", "Zidan", "Firman", "Gurindo", "Setyarto", "Sudaryati"),
+                sortedList
+        );
+        // only {Al, El} and {Budi, Hari} has the same length
+        assertEquals(2, comparisons.get());
+        assertEquals(sortedList, names.stream().sorted(stringSizeSort.comparator()).toList());
+    }
+
+    @Test
+    @DisplayName(value = "stable without tie breaker")
+    void testStable() {
+        List<String> sortedList = KeyedSort.<String>comparingInt(String::length).sorted(names.stream()).toList();
+
+        // the names with the same length keep the encounter order
+        assertEquals(
+                List.of("El", "Al", "Edi", "Hari", "Budi", "Zidan", "Firman", "Gurindo", "Setyarto", "Sudaryati"),
+                sortedList
+        );
+    }
+
+    @Test
+    @DisplayName(value = "with less comparison")
+    void testLessComparison() {
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            words.add(Integer.toString(random.nextInt(), 36));
+        }
+        CountingComparator<String> stringSizeComparator = new CountingComparator<>(
+                Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+        AtomicLong keyedComparisons = new AtomicLong();
+
+        List<String> expected = words.stream().sorted(stringSizeComparator).toList();
+        List<String> result = KeyedSort.<String>comparingInt(String::length)
+                .thenComparing(Comparator.naturalOrder())
+                .withListener((size, count, elapsedNanos) -> keyedComparisons.set(count))
+                .sort(words);
+
+        assertEquals(expected, result);
+        assertTrue(keyedComparisons.get() < stringSizeComparator.comparisons(),
+                keyedComparisons.get() + " >= " + stringSizeComparator.comparisons());
+    }
+
+    @Test
+    @DisplayName(value = "with negative key")
+    void testNegativeKey() {
+        Integer[] numbers = Stream.of(3, -1, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, -7).toArray(Integer[]::new);
+        KeyedSort.<Integer>comparingInt(Integer::intValue).sortInPlace(numbers);
+
+        assertArrayEquals(new Integer[]{Integer.MIN_VALUE, -7, -1, 0, 3, Integer.MAX_VALUE}, numbers);
+    }
+}
@@ -0,0 +1,83 @@
+package setianjay.stream.sort;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Top K")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class TopKTest {
+
+    // string size comparator, if the length are equal sort them alphabetically
+    private final Comparator<String> stringSizeComparator = Comparator.comparingInt(String::length)
+            .thenComparing(Comparator.naturalOrder());
+
+    private Stream<String> names() {
+        return Stream.of("Hari", "Budi", "Edi", "Gurindo", "Firman", "Setyarto", "Sudaryati", "El", "Al", "Zidan");
+    }
+
+    @Test
+    @DisplayName(value = "smallest")
+    void testSmallest() {
+        List<String> shortestNames = names().collect(TopK.smallest(5, stringSizeComparator));
+
+        // result {Al, El, Edi, Budi, Hari}, the same with sorted(stringSizeComparator).limit(5)
+        assertEquals(names().sorted(stringSizeComparator).limit(5).toList(), shortestNames);
+    }
+
+    @Test
+    @DisplayName(value = "largest")
+    void testLargest() {
+        List<String> longestNames = names().collect(TopK.largest(3, stringSizeComparator));
+
+        assertEquals(List.of("Sudaryati", "Setyarto", "Gurindo"), longestNames);
+    }
+
+    @Test
+    @DisplayName(value = "more than the elements")
+    void testMoreThanElements() {
+        assertEquals(names().sorted().toList(), names().collect(TopK.smallest(100, Comparator.naturalOrder())));
+        assertEquals(List.of(), names().collect(TopK.smallest(0, Comparator.naturalOrder())));
+    }
+
+    @Test
+    @DisplayName(value = "in parallel and stable")
+    void testParallelAndStable() {
+        int[] numbers = new Random(42).ints(1_000_000, 0, 1_000).toArray();
+        // only compare the number, the index tells if the equal numbers are in encounter order
+        Comparator<int[]> byNumber = Comparator.comparingInt(pair -> pair[0]);
+
+        List<int[]> expected = IntStream.range(0, numbers.length)
+                .mapToObj(index -> new int[]{numbers[index], index})
+                .sorted(byNumber)
+                .limit(1_000)
+                .toList();
+        List<int[]> result = IntStream.range(0, numbers.length)
+                .parallel()
+                .mapToObj(index -> new int[]{numbers[index], index})
+                .collect(TopK.smallest(1_000, byNumber));
+
+        assertEquals(expected.size(), result.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), result.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName(value = "with k much more than the elements")
+    void testHugeK() {
+        // the heap grows with the elements, k slots are never allocated up front
+        List<Integer> result = IntStream.range(0, 10_000).boxed()
+                .parallel()
+                .collect(TopK.largest(Integer.MAX_VALUE, Comparator.naturalOrder()));
+
+        assertEquals(10_000, result.size());
+        assertEquals(IntStream.range(0, 10_000).map(number -> 9_999 - number).boxed().toList(), result);
+    }
+}
@@ -0,0 +1,93 @@
+package setianjay.stream.source;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Byte Slice")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class ByteSliceTest {
+
+    @Test
+    @DisplayName(value = "char sequence")
+    void testCharSequence() {
+        ByteSlice slice = ByteSlice.of("Hello Budi");
+
+        assertEquals(10, slice.length());
+        assertEquals('B', slice.charAt(6));
+        assertEquals("Budi", slice.subSequence(6, 10).toString());
+        assertTrue("Hello Budi".contentEquals(slice));
+        assertThrows(IndexOutOfBoundsException.class, () -> slice.charAt(10));
+    }
+
+    @Test
+    @DisplayName(value = "char sequence with non ASCII")
+    void testCharSequenceNonAscii() {
+        ByteSlice slice = ByteSlice.of("Café Budi"); // "é" is 2 bytes in UTF-8
+
+        // the char sequence and toString() are the same ISO-8859-1 view of the bytes
+        assertEquals(10, slice.length());
+        assertEquals(slice.length(), slice.toString().length());
+        assertEquals(slice.toString(), new StringBuilder().append(slice).toString());
+        assertTrue(slice.toString().contentEquals(slice));
+        assertEquals("Budi", slice.subSequence(6, 10).toString());
+
+        // the text is decoded explicitly
+        assertEquals("Café Budi", slice.toUtf8String());
+    }
+
+    @Test
+    @DisplayName(value = "equals and hash code")
+    void testEquals() {
+        ByteSlice budi = ByteSlice.of("Hello Budi").subSequence(6, 10);
+
+        assertEquals(ByteSlice.of("Budi"), budi);
+        assertEquals(ByteSlice.of("Budi").hashCode(), budi.hashCode());
+        assertNotEquals(ByteSlice.of("Edi"), budi);
+        assertTrue(ByteSlice.of("Al").compareTo(budi) < 0);
+        assertTrue(ByteSlice.of("Budiman").compareTo(budi) > 0);
+        assertEquals(0, ByteSlice.of("Budi").compareTo(budi));
+
+        // the bytes are compared unsigned, so a non ASCII character is after every ASCII character like in a String
+        for (String name : new String[]{"Café", "Cafe", "Caf", "Caféx", "Cafè", "Cafz"}) {
+            assertEquals(Integer.signum("Cafe".compareTo(name)),
+                    Integer.signum(ByteSlice.of("Cafe").compareTo(ByteSlice.of(name))), name);
+            assertEquals(Integer.signum("Café".compareTo(name)),
+                    Integer.signum(ByteSlice.of("Café").compareTo(ByteSlice.of(name))), name);
+        }
+
+        // the slices of the same bytes are grouped together
+        Map<ByteSlice, Long> counts = Stream.of("Budi", "Edi", "Budi").map(ByteSlice::of)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        assertEquals(2L, counts.get(budi));
+    }
+
+    @Test
+    @DisplayName(value = "field")
+    void testField() {
+        ByteSlice line = ByteSlice.of("2023-01-01,Budi,,42");
+
+        assertEquals("2023-01-01", line.field(0, (byte) ',').toString());
+        assertEquals("Budi", line.field(1, (byte) ',').toString());
+        assertEquals(0, line.field(2, (byte) ',').length());
+        assertEquals(42, line.field(3, (byte) ',').parseInt());
+        assertThrows(IndexOutOfBoundsException.class, () -> line.field(4, (byte) ','));
+    }
+
+    @Test
+    @DisplayName(value = "parse long")
+    void testParseLong() {
+        assertEquals(-17, ByteSlice.of("-17").parseLong());
+        assertEquals(Long.MAX_VALUE, ByteSlice.of(String.valueOf(Long.MAX_VALUE)).parseLong());
+        assertEquals(Long.MIN_VALUE, ByteSlice.of(String.valueOf(Long.MIN_VALUE)).parseLong());
+        assertThrows(NumberFormatException.class, () -> ByteSlice.of("9223372036854775808").parseLong());
+        assertThrows(NumberFormatException.class, () -> ByteSlice.of("12a").parseLong());
+        assertThrows(NumberFormatException.class, () -> ByteSlice.of("-").parseLong());
+        assertThrows(NumberFormatException.class, () -> ByteSlice.of("").parseLong());
+    }
+}
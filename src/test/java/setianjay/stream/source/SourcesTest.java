@@ -0,0 +1,254 @@
+package setianjay.stream.source;
+
+import org.junit.jupiter.api.*;
+import setianjay.stream.aggregate.Statistics;
+import setianjay.stream.collector.IntList;
+import setianjay.stream.collector.LongList;
+import setianjay.stream.spill.Serializer;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Sources")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class SourcesTest {
+
+    private final int[] numbers = IntStream.rangeClosed(1, 10_000).toArray();
+
+    // split until every chunk is too small, returns the size of every chunk
+    private static List<Long> chunks(Spliterator<?> spliterator) {
+        List<Long> chunks = new ArrayList<>();
+        Spliterator<?> prefix = spliterator.trySplit();
+        if (prefix == null) {
+            chunks.add(spliterator.estimateSize());
+        } else {
+            chunks.addAll(chunks(prefix));
+            chunks.addAll(chunks(spliterator));
+        }
+        return chunks;
+    }
+
+    @Test
+    @DisplayName(value = "array")
+    void testArray() {
+        assertArrayEquals(numbers, Sources.stream(numbers, 100).toArray());
+        assertArrayEquals(numbers, Sources.stream(numbers, 100).parallel().toArray());
+        assertEquals(IntStream.of(numbers).sum(), Sources.stream(numbers, 100).parallel().sum());
+    }
+
+    @Test
+    @DisplayName(value = "characteristics")
+    void testCharacteristics() {
+        Spliterator.OfInt spliterator = Sources.stream(numbers, 100).spliterator();
+
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.IMMUTABLE));
+        assertEquals(numbers.length, spliterator.getExactSizeIfKnown());
+    }
+
+    @Test
+    @DisplayName(value = "even split with minimum chunk")
+    void testEvenSplit() {
+        List<Long> chunks = chunks(Sources.stream(numbers, 1000).spliterator());
+
+        // 10000 -> 5000 -> 2500 -> 1250, 1250 is less than 2 * 1000 so it is not split anymore
+        assertEquals(8, chunks.size());
+        chunks.forEach(chunk -> assertEquals(1250L, chunk));
+
+        // never split below the minimum chunk
+        assertEquals(List.of(10_000L), chunks(Sources.stream(numbers, 6000).spliterator()));
+    }
+
+    @Test
+    @DisplayName(value = "growable buffer")
+    void testBuffer() {
+        IntList buffer = new IntList();
+        IntStream.of(numbers).forEach(buffer::add);
+
+        assertArrayEquals(numbers, Sources.stream(buffer, 100).parallel().toArray());
+
+        // the buffer is mutable, so neither the stream nor its splits report IMMUTABLE
+        Spliterator.OfInt spliterator = Sources.stream(buffer, 100).spliterator();
+        assertFalse(spliterator.hasCharacteristics(Spliterator.IMMUTABLE));
+        assertFalse(spliterator.trySplit().hasCharacteristics(Spliterator.IMMUTABLE));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+
+        LongList longBuffer = new LongList();
+        IntStream.of(numbers).forEach(longBuffer::add);
+        assertFalse(Sources.stream(longBuffer, 100).spliterator().hasCharacteristics(Spliterator.IMMUTABLE));
+    }
+
+    @Test
+    @DisplayName(value = "long and double array with default chunk")
+    void testDefaultChunk() {
+        long[] longs = IntStream.of(numbers).asLongStream().toArray();
+        double[] doubles = IntStream.of(numbers).asDoubleStream().toArray();
+
+        assertEquals(LongStream.of(longs).sum(), Sources.stream(longs).parallel().sum());
+        assertEquals(DoubleStream.of(doubles).sum(), Sources.stream(doubles).parallel().sum());
+        assertTrue(Sources.stream(longs).spliterator().hasCharacteristics(Spliterator.IMMUTABLE));
+    }
+
+    @Test
+    @DisplayName(value = "lines")
+    void testLines() throws IOException {
+        // lines of different length, with an empty line, a windows line and no terminator at the end
+        List<String> lines = IntStream.range(0, 5_000)
+                .mapToObj(index -> index % 100 == 0 ? "" : "line-" + index + "-" + "x".repeat(index % 37))
+                .collect(Collectors.toCollection(ArrayList::new));
+        lines.set(7, lines.get(7) + "\r");
+        Path file = Files.createTempFile("lines", ".txt");
+        try {
+            Files.writeString(file, String.join("\n", lines), StandardCharsets.UTF_8);
+            lines.set(7, lines.get(7).strip());
+
+            try (Stream<ByteSlice> stream = Sources.lines(file, 256, 1024)) {
+                assertEquals(lines, stream.parallel().map(ByteSlice::toString).toList());
+            }
+            try (Stream<ByteSlice> stream = Sources.lines(file)) {
+                assertEquals(lines, stream.map(ByteSlice::toString).toList());
+            }
+
+            // every split ends after a line terminator, so no line is read twice or cut
+            List<Long> chunks = chunks(Sources.lines(file, 1024).spliterator());
+            assertEquals(Files.size(file), chunks.stream().mapToLong(Long::longValue).sum());
+            assertTrue(chunks.size() > 1);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName(value = "lines longer than the window")
+    void testLongLine() throws IOException {
+        Path file = Files.createTempFile("lines", ".txt");
+        try {
+            Files.writeString(file, "short\n" + "x".repeat(100) + "\nshort\n");
+
+            try (Stream<ByteSlice> stream = Sources.lines(file, 1, 64)) {
+                assertThrows(IllegalStateException.class, stream::count);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName(value = "lines to existing pipeline")
+    void testLinesPipeline() throws IOException {
+        Path file = Files.createTempFile("orders", ".csv");
+        try {
+            Files.write(file, List.of("Budi,10", "Edi,20", "Budi,30", "Hari,5", "Edi,7"));
+
+            try (Stream<ByteSlice> lines = Sources.lines(file)) {
+                Map<String, Statistics> orders = lines.parallel()
+                        .collect(Collectors.groupingBy(line -> line.field(0, (byte) ',').toString(),
+                                Statistics.collector(line -> line.field(1, (byte) ',').parseLong())));
+
+                assertEquals(40, orders.get("Budi").getSum());
+                assertEquals(13.5, orders.get("Edi").getMean());
+                assertEquals(1, orders.get("Hari").getCount());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName(value = "records")
+    void testRecords() throws IOException {
+        Path file = Files.createTempFile("records", ".bin");
+        try {
+            try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(file))) {
+                for (long number = 0; number < 10_000; number++) {
+                    output.writeLong(number * number);
+                }
+            }
+
+            // small window, so a split maps the file more than once
+            try (Stream<Long> records = Sources.records(file, Long.BYTES, Serializer.longs(), 100, 4096)) {
+                assertEquals(LongStream.range(0, 10_000).map(number -> number * number).boxed().toList(),
+                        records.parallel().toList());
+            }
+            assertThrows(IllegalArgumentException.class, () -> Sources.records(file, 3, Serializer.longs(), 100));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName(value = "mapped file")
+    void testMappedFile() throws IOException {
+        Path file = Files.createTempFile("numbers", ".bin");
+        try {
+            try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(file))) {
+                for (int number : numbers) {
+                    output.writeInt(number);
+                }
+            }
+
+            try (IntStream stream = Sources.mappedInts(file, 100)) {
+                assertArrayEquals(numbers, stream.parallel().toArray());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName(value = "mapped file split after advance")
+    void testMappedFileSplitAfterAdvance() throws IOException {
+        Path file = Files.createTempFile("numbers", ".bin");
+        try {
+            try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(file))) {
+                for (int number : numbers) {
+                    output.writeInt(number);
+                }
+            }
+
+            try (IntStream stream = Sources.mappedInts(file, 100)) {
+                // the window is mapped by the first advance, the split moves the start of the remaining range
+                Spliterator.OfInt suffix = stream.spliterator();
+                IntList read = new IntList();
+                IntConsumer add = read::add;
+                assertTrue(suffix.tryAdvance(add));
+                assertTrue(suffix.tryAdvance(add));
+                Spliterator.OfInt prefix = suffix.trySplit();
+                assertNotNull(prefix);
+                assertTrue(prefix.tryAdvance(add));
+                prefix.forEachRemaining(add);
+                assertTrue(suffix.tryAdvance(add));
+                suffix.forEachRemaining(add);
+
+                assertArrayEquals(numbers, read.toArray());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName(value = "range")
+    void testRange() {
+        assertEquals(LongStream.range(-5, 1_000_000).sum(), Sources.range(-5, 1_000_000, 1000).parallel().sum());
+        assertEquals(0, Sources.range(7, 7, 1).count());
+        assertThrows(IllegalArgumentException.class, () -> Sources.range(8, 7, 1));
+        assertThrows(IllegalArgumentException.class, () -> Sources.range(0, 7, 0));
+    }
+}
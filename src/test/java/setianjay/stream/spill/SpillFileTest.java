@@ -0,0 +1,61 @@
+package setianjay.stream.spill;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Spill File")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class SpillFileTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    @DisplayName(value = "write and read")
+    void testWriteAndRead() {
+        List<String> names = new ArrayList<>();
+        Path path;
+        try (SpillFile<String> file = SpillFile.create(spillDirectory, Serializer.strings())) {
+            path = file.path();
+            for (int i = 0; i < 50_000; i++) {
+                String name = "Hari Setiaji " + i;
+                names.add(name);
+                file.append(name);
+            }
+            // a value bigger than the write buffer
+            String longName = "Gurindo".repeat(20_000);
+            names.add(longName);
+            file.append(longName);
+
+            List<String> result = new ArrayList<>();
+            file.iterator().forEachRemaining(result::add);
+
+            assertEquals(names, result);
+            assertEquals(50_001, file.count());
+        }
+
+        assertFalse(Files.exists(path));
+    }
+
+    @Test
+    @DisplayName(value = "read value longer than the read window")
+    void testValueLongerThanReadWindow() {
+        List<String> names = List.of("Hari", "Setiaji".repeat(100), "Gurindo", "Sekti".repeat(1_000));
+        try (SpillFile<String> file = SpillFile.create(spillDirectory, Serializer.strings(), 16)) {
+            names.forEach(file::append);
+
+            List<String> result = new ArrayList<>();
+            file.iterator().forEachRemaining(result::add);
+
+            // the window grows to the long value instead of mapping the same window again and again
+            assertEquals(names, result);
+        }
+    }
+}
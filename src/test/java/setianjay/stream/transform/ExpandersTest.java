@@ -0,0 +1,77 @@
+package setianjay.stream.transform;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "An Expanders")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class ExpandersTest {
+
+    private Stream<String> names() {
+        return Stream.of("Hari", "Budi", "Edi");
+    }
+
+    @Test
+    @DisplayName(value = "chars")
+    void testChars() {
+        int[] characters = names().mapMultiToInt(Expanders.chars(Function.identity())).toArray();
+
+        assertArrayEquals(names().flatMapToInt(String::chars).toArray(), characters);
+    }
+
+    @Test
+    @DisplayName(value = "flattening")
+    void testFlattening() {
+        Map<String, List<Integer>> orders = Map.of("Budi", List.of(10, 30), "Edi", List.of(), "Hari", List.of(5));
+
+        List<Integer> amounts = names().<Integer>mapMulti(Expanders.flattening(orders::get)).toList();
+
+        assertEquals(List.of(5, 10, 30), amounts);
+    }
+
+    @Test
+    @DisplayName(value = "ints and longs")
+    void testPrimitive() {
+        assertArrayEquals(new int[]{1, 10, 2, 20}, IntStream.of(1, 2)
+                .mapMulti(Expanders.ints(IntUnaryOperator.identity(), number -> number * 10)).toArray());
+        assertArrayEquals(new int[]{2, 3, 3}, IntStream.of(1, 2, 3)
+                .mapMulti(Expanders.repeat(number -> number - 1)).toArray());
+        assertArrayEquals(new long[]{-1, 1, -2, 2}, LongStream.of(1, 2)
+                .mapMulti(Expanders.longs(number -> -number, number -> number)).toArray());
+        assertArrayEquals(new int[]{4, 72, 4, 66, 3, 69}, names()
+                .mapMultiToInt(Expanders.toInts(String::length, name -> name.charAt(0))).toArray());
+        assertArrayEquals(new long[]{4, 4, 3}, names().mapMultiToLong(Expanders.toLongs(String::length)).toArray());
+    }
+
+    @Test
+    @DisplayName(value = "of")
+    void testOf() {
+        // the same with TransformationStreamTest, without a Stream for every name
+        assertEquals(names().flatMap(name -> Stream.of(name.toUpperCase())).toList(),
+                names().<String>mapMulti(Expanders.of(String::toUpperCase)).toList());
+
+        assertEquals(List.of("HARI", "hari", "BUDI", "budi", "EDI", "edi"),
+                names().<String>mapMulti(Expanders.of(String::toUpperCase, String::toLowerCase)).toList());
+        assertEquals(List.of("Hari", "Hari", "Hari"),
+                names().<String>mapMulti(Expanders.of(name -> name, name -> name, name -> name)).limit(3).toList());
+    }
+
+    @Test
+    @DisplayName(value = "of nullable")
+    void testOfNullable() {
+        List<Character> initials = names()
+                .<Character>mapMulti(Expanders.ofNullable(name -> name.length() > 3 ? name.charAt(0) : null))
+                .toList();
+
+        assertEquals(List.of('H', 'B'), initials);
+    }
+}
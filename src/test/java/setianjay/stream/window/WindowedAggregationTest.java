@@ -0,0 +1,158 @@
+package setianjay.stream.window;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName(value = "A Windowed Aggregation")
+@TestMethodOrder(value = MethodOrderer.DisplayName.class)
+class WindowedAggregationTest {
+
+    private record Event(long time, String key, double value) {
+    }
+
+    // synthetic feed, 0 to 3 milliseconds between the events, 10 keys
+    private static Stream<Event> generator(long seed) {
+        Random random = new Random(seed);
+        long[] time = {0};
+        return Stream.generate(() -> {
+            time[0] += random.nextInt(4);
+            return new Event(time[0], "key-" + random.nextInt(10), random.nextInt(10_000) / 100.0);
+        });
+    }
+
+    // scan all the events of every window again, the slow way the engine must be the same with
+    private static Map<String, WindowResult<String>> expected(List<Event> events, long size, long slide) {
+        Map<String, WindowResult<String>> results = new HashMap<>();
+        long last = events.getLast().time();
+        for (long end = slide; end - size <= last; end += slide) {
+            long start = end - size;
+            long windowEnd = end;
+            events.stream()
+                    .filter(event -> event.time() >= start && event.time() < windowEnd)
+                    .collect(Collectors.groupingBy(Event::key, Collectors.summarizingDouble(Event::value)))
+                    .forEach((key, statistics) -> results.put(key + "@" + start, new WindowResult<>(key, start,
+                            windowEnd, statistics.getCount(), statistics.getSum(), statistics.getMin(),
+                            statistics.getMax())));
+        }
+        return results;
+    }
+
+    private static void assertResults(Map<String, WindowResult<String>> expected, List<WindowResult<String>> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (WindowResult<String> result : actual) {
+            WindowResult<String> window = expected.get(result.key() + "@" + result.start());
+            assertNotNull(window, "unexpected " + result);
+            assertEquals(window.end(), result.end());
+            assertEquals(window.count(), result.count());
+            assertEquals(window.sum(), result.sum(), 1e-6);
+            assertEquals(window.min(), result.min());
+            assertEquals(window.max(), result.max());
+        }
+    }
+
+    @Test
+    @DisplayName(value = "advance to")
+    void testAdvanceTo() {
+        List<WindowResult<String>> results = new ArrayList<>();
+        WindowAggregator<Event, String> aggregator = WindowedAggregation.tumbling(10, Event::time, Event::key,
+                Event::value).start(results::add);
+
+        aggregator.accept(new Event(3, "Budi", 10));
+        aggregator.accept(new Event(7, "Edi", 20));
+        aggregator.accept(new Event(8, "Budi", 30));
+        assertEquals(List.of(), results);
+
+        // the window [0, 10) is closed by the clock, without a new event
+        aggregator.advanceTo(10);
+        assertEquals(List.of(new WindowResult<>("Budi", 0, 10, 2, 40, 10, 30),
+                new WindowResult<>("Edi", 0, 10, 1, 20, 20, 20)), results);
+        assertEquals(20, results.getFirst().average());
+
+        // late, the window is closed
+        aggregator.accept(new Event(9, "Budi", 50));
+        assertEquals(1, aggregator.lateEvents());
+    }
+
+    @Test
+    @DisplayName(value = "gap")
+    void testGap() {
+        List<Event> events = List.of(new Event(1, "Budi", 1), new Event(2, "Budi", 2),
+                new Event(1_000_000_000, "Budi", 3));
+
+        List<WindowResult<String>> results = WindowedAggregation.sliding(30, 10, Event::time, Event::key,
+                Event::value).apply(events.stream()).toList();
+
+        // 3 windows with the first events, 3 windows with the last, nothing for the empty windows between them
+        assertEquals(6, results.size());
+        assertResults(expected(events, 30, 10), results);
+    }
+
+    @Test
+    @DisplayName(value = "invalid")
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> WindowedAggregation.sliding(30, 7, Event::time, Event::key, Event::value));
+        assertThrows(IllegalArgumentException.class,
+                () -> WindowedAggregation.tumbling(0, Event::time, Event::key, Event::value));
+    }
+
+    @Test
+    @DisplayName(value = "sliding")
+    void testSliding() {
+        List<Event> events = generator(7).limit(20_000).toList();
+
+        List<WindowResult<String>> results = WindowedAggregation.sliding(100, 20, Event::time, Event::key,
+                Event::value).apply(events.stream()).toList();
+
+        assertResults(expected(events, 100, 20), results);
+        // windows are returned in the order of their end
+        for (int i = 1; i < results.size(); i++) {
+            assertTrue(results.get(i - 1).end() <= results.get(i).end());
+        }
+    }
+
+    @Test
+    @DisplayName(value = "tumbling")
+    void testTumbling() {
+        List<Event> events = generator(42).limit(20_000).toList();
+
+        List<WindowResult<String>> results = WindowedAggregation.tumbling(50, Event::time, Event::key,
+                Event::value).apply(events.stream()).toList();
+
+        assertResults(expected(events, 50, 50), results);
+        assertEquals(events.size(), results.stream().mapToLong(WindowResult::count).sum());
+    }
+
+    @Test
+    @DisplayName(value = "parallel")
+    void testParallel() {
+        List<Event> events = generator(7).limit(20_000).toList();
+
+        // the result is not split, so the open windows are only flushed after the last event
+        List<WindowResult<String>> results = WindowedAggregation.sliding(100, 20, Event::time, Event::key,
+                Event::value).apply(events.parallelStream()).parallel().toList();
+
+        assertResults(expected(events, 100, 20), results);
+    }
+
+    @Test
+    @DisplayName(value = "unbounded")
+    void testUnbounded() {
+        WindowedAggregation<Event, String> aggregation = WindowedAggregation.sliding(1_000, 100, Event::time,
+                event -> "all", Event::value);
+
+        // the feed never ends, the windows are returned while it runs
+        List<WindowResult<String>> results = aggregation.apply(generator(1)).limit(10_000).toList();
+
+        assertEquals(10_000, results.size());
+        // about 667 events every window of 1000 milliseconds, 1.5 milliseconds between the events
+        WindowResult<String> window = results.getLast();
+        assertEquals(1_000, window.end() - window.start());
+        assertEquals(667, window.count(), 100);
+    }
+}